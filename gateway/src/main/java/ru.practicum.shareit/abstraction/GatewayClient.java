@@ -2,104 +2,116 @@ package ru.practicum.shareit.abstraction;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.abstraction.engine.ProxyEngine;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
+import static ru.practicum.shareit.util.UtilConstants.CURSOR_PARAM;
 import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
 
 public class GatewayClient {
-    protected final RestTemplate rest;
+    private static final List<String> FORWARDED_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH);
+
+    protected final ProxyEngine engine;
 
-    public GatewayClient(RestTemplate rest) {
-        this.rest = rest;
+    public GatewayClient(ProxyEngine engine) {
+        this.engine = engine;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> params) {
+    protected Mono<ResponseEntity<Object>> get(String path, @Nullable Map<String, Object> params) {
         return sendRequest(HttpMethod.GET, path, null, params, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> params) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> params) {
         return sendRequest(HttpMethod.GET, path, userId, params, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> params, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> params, T body) {
         return sendRequest(HttpMethod.POST, path, userId, params, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> params, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> params, T body) {
         return sendRequest(HttpMethod.PUT, path, userId, params, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, T body) {
         return sendRequest(HttpMethod.PUT, path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> params, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> params, T body) {
         return sendRequest(HttpMethod.PATCH, path, userId, params, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> params) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> params) {
         return sendRequest(HttpMethod.DELETE, path, userId, params, null);
     }
 
-    private <T> ResponseEntity<Object> sendRequest(HttpMethod method, String path, Long userId,
-                                                   @Nullable Map<String, Object> params,
-                                                   @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-        ResponseEntity<Object> shareItServerResponse;
-        try {
-            if (params != null) {
-                shareItServerResponse = rest.exchange(path, method, requestEntity, Object.class, params);
-            } else {
-                shareItServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    protected void stream(String path, long userId, HttpServletResponse response) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        engine.stream(path, headers, response);
+    }
+
+    protected String withCursor(String path, Map<String, Object> params, @Nullable String after) {
+        if (after == null) {
+            return path;
         }
-        return prepareGatewayResponse(shareItServerResponse);
+        params.put(CURSOR_PARAM, after);
+        return path + "&" + CURSOR_PARAM + "={" + CURSOR_PARAM + "}";
+    }
+
+    private <T> Mono<ResponseEntity<Object>> sendRequest(HttpMethod method, String path, Long userId,
+                                                         @Nullable Map<String, Object> params,
+                                                         @Nullable T body) {
+        return engine.exchange(method, path, defaultHeaders(userId), params, body)
+                .map(this::prepareGatewayResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -109,11 +121,25 @@ public class GatewayClient {
         if (userId != null) {
             headers.set(OWNER_ID_HEADER, String.valueOf(userId));
         }
+        forwardClientHeaders(headers);
         return headers;
     }
 
+    private void forwardClientHeaders(HttpHeaders headers) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+        for (String name : FORWARDED_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
+        }
+    }
+
     private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
+        if (response.getStatusCode().is2xxSuccessful() || response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
             return response;
         }
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.abstraction.engine;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+public class BlockingProxyEngine implements ProxyEngine {
+
+    private final RestTemplate rest;
+    private final boolean passThrough;
+
+    public BlockingProxyEngine(RestTemplate rest, boolean passThrough) {
+        this.rest = rest;
+        this.passThrough = passThrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> params,
+                                                 @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, new HttpEntity<>(body, headers), params));
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, HttpServletResponse response) throws IOException {
+        try {
+            rest.execute(path, HttpMethod.GET, request -> request.getHeaders().addAll(headers), serverResponse -> {
+                StreamingResponse.writeHead(serverResponse.getRawStatusCode(), serverResponse.getHeaders(), response);
+                StreamingResponse.copy(serverResponse.getBody(), response);
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            HttpHeaders serverHeaders = e.getResponseHeaders();
+            StreamingResponse.writeHead(e.getRawStatusCode(),
+                    serverHeaders != null ? serverHeaders : HttpHeaders.EMPTY, response);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, HttpEntity<Object> requestEntity,
+                                        @Nullable Map<String, Object> params) {
+        try {
+            if (passThrough) {
+                ResponseEntity<byte[]> response = params != null
+                        ? rest.exchange(path, method, requestEntity, byte[].class, params)
+                        : rest.exchange(path, method, requestEntity, byte[].class);
+                return PassThroughResponse.of(response.getStatusCodeValue(), response.getHeaders(), response.getBody());
+            }
+            if (params != null) {
+                return rest.exchange(path, method, requestEntity, Object.class, params);
+            }
+            return rest.exchange(path, method, requestEntity, Object.class);
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.abstraction.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
+
+public class CoalescingProxyEngine implements ProxyEngine {
+
+    public static final String COALESCING_METRIC = "shareit.gateway.http.coalescing";
+
+    private final ProxyEngine delegate;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter joined;
+
+    public CoalescingProxyEngine(ProxyEngine delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.leaders = Counter.builder(COALESCING_METRIC)
+                .tag("result", "upstream")
+                .register(meterRegistry);
+        this.joined = Counter.builder(COALESCING_METRIC)
+                .tag("result", "joined")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> params,
+                                                 @Nullable Object body) {
+        if (method != HttpMethod.GET) {
+            String user = userKey(headers);
+            return delegate.exchange(method, path, headers, params, body)
+                    .doOnTerminate(() -> forget(user));
+        }
+        String key = key(path, headers, params);
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> current = inFlight.get(key);
+            if (current != null) {
+                joined.increment();
+                return current;
+            }
+            AtomicReference<Mono<ResponseEntity<Object>>> shared = new AtomicReference<>();
+            shared.set(delegate.exchange(method, path, headers, params, null)
+                    .doFinally(signal -> inFlight.remove(key, shared.get()))
+                    .cache());
+            current = inFlight.putIfAbsent(key, shared.get());
+            if (current != null) {
+                joined.increment();
+                return current;
+            }
+            leaders.increment();
+            return shared.get();
+        });
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, HttpServletResponse response) throws IOException {
+        delegate.stream(path, headers, response);
+    }
+
+    /**
+     * A read issued after a write of the same user must not join a read that started before the write,
+     * so every in-flight read of that user is dropped before the write's response reaches the caller.
+     */
+    private void forget(String user) {
+        inFlight.keySet().removeIf(key -> key.startsWith(user));
+    }
+
+    private String key(String path, HttpHeaders headers, @Nullable Map<String, Object> params) {
+        StringBuilder key = new StringBuilder(userKey(headers)).append(path);
+        if (params != null) {
+            key.append(new TreeMap<>(params));
+        }
+        return key.append('|').append(headers.getFirst(HttpHeaders.IF_NONE_MATCH)).toString();
+    }
+
+    private static String userKey(HttpHeaders headers) {
+        return headers.getFirst(OWNER_ID_HEADER) + "|";
+    }
+}
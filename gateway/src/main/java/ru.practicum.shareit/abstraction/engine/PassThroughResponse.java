@@ -0,0 +1,33 @@
+package ru.practicum.shareit.abstraction.engine;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+import static ru.practicum.shareit.util.UtilConstants.NEXT_CURSOR_HEADER;
+
+public class PassThroughResponse {
+
+    public static final List<String> PASS_THROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.ETAG,
+            NEXT_CURSOR_HEADER
+    );
+
+    private PassThroughResponse() {
+    }
+
+    public static ResponseEntity<Object> of(int status, HttpHeaders serverHeaders, @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : PASS_THROUGH_HEADERS) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                headers.addAll(name, values);
+            }
+        }
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+}
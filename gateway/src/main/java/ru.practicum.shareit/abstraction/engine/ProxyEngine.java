@@ -0,0 +1,21 @@
+package ru.practicum.shareit.abstraction.engine;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+public interface ProxyEngine {
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> params,
+                                          @Nullable Object body);
+
+    void stream(String path, HttpHeaders headers, HttpServletResponse response) throws IOException;
+
+}
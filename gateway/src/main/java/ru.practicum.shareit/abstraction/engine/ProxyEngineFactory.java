@@ -0,0 +1,64 @@
+package ru.practicum.shareit.abstraction.engine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+@Component
+public class ProxyEngineFactory {
+
+    private final ProxyEngineType type;
+    private final boolean passThrough;
+    private final boolean coalescing;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final WebClient.Builder webClientBuilder;
+    private final HttpClient httpClient;
+    private final ClientHttpConnector clientConnector;
+    private final MeterRegistry meterRegistry;
+
+    public ProxyEngineFactory(@Value("${shareit-gateway.client.engine:blocking}") String type,
+                              @Value("${shareit-gateway.client.pass-through:true}") boolean passThrough,
+                              @Value("${shareit-gateway.client.coalescing:false}") boolean coalescing,
+                              RestTemplateBuilder restTemplateBuilder,
+                              WebClient.Builder webClientBuilder,
+                              HttpClient gatewayHttpClient,
+                              ClientHttpConnector gatewayClientConnector,
+                              MeterRegistry meterRegistry) {
+        this.type = ProxyEngineType.valueOf(type.toUpperCase());
+        this.passThrough = passThrough;
+        this.coalescing = coalescing;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.webClientBuilder = webClientBuilder;
+        this.httpClient = gatewayHttpClient;
+        this.clientConnector = gatewayClientConnector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ProxyEngine create(String baseUrl) {
+        ProxyEngine engine = createEngine(baseUrl);
+        return coalescing ? new CoalescingProxyEngine(engine, meterRegistry) : engine;
+    }
+
+    private ProxyEngine createEngine(String baseUrl) {
+        if (type == ProxyEngineType.REACTIVE) {
+            return new ReactiveProxyEngine(webClientBuilder.clone()
+                    .clientConnector(clientConnector)
+                    .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                    .build(), passThrough);
+        }
+        return new BlockingProxyEngine(restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build(), passThrough);
+    }
+
+    public ProxyEngineType getType() {
+        return type;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.abstraction.engine;
+
+public enum ProxyEngineType {
+    BLOCKING,
+    REACTIVE
+}
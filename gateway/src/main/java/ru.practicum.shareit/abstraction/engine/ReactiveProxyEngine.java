@@ -0,0 +1,76 @@
+package ru.practicum.shareit.abstraction.engine;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+public class ReactiveProxyEngine implements ProxyEngine {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final int STREAM_PREFETCH = 4;
+
+    private final WebClient webClient;
+    private final boolean passThrough;
+
+    public ReactiveProxyEngine(WebClient webClient, boolean passThrough) {
+        this.webClient = webClient;
+        this.passThrough = passThrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> params,
+                                                 @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, params != null ? params : Map.of())
+                .headers(h -> h.addAll(headers));
+        if (body != null) {
+            request.bodyValue(body);
+        }
+        return request.exchangeToMono(this::toResponseEntity);
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, HttpServletResponse response) throws IOException {
+        Iterable<DataBuffer> chunks = webClient.get()
+                .uri(path)
+                .headers(h -> h.addAll(headers))
+                .exchangeToFlux(serverResponse -> {
+                    StreamingResponse.writeHead(serverResponse.rawStatusCode(),
+                            serverResponse.headers().asHttpHeaders(), response);
+                    return serverResponse.bodyToFlux(DataBuffer.class);
+                })
+                .toIterable(STREAM_PREFETCH);
+        for (DataBuffer chunk : chunks) {
+            try (InputStream body = chunk.asInputStream(true)) {
+                StreamingResponse.copy(body, response);
+            }
+        }
+    }
+
+    private Mono<ResponseEntity<Object>> toResponseEntity(ClientResponse response) {
+        if (response.statusCode().isError()) {
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(EMPTY_BODY)
+                    .map(bytes -> ResponseEntity.status(response.rawStatusCode()).body(bytes));
+        }
+        if (passThrough) {
+            HttpHeaders serverHeaders = response.headers().asHttpHeaders();
+            return response.bodyToMono(byte[].class)
+                    .map(bytes -> PassThroughResponse.of(response.rawStatusCode(), serverHeaders, bytes))
+                    .defaultIfEmpty(PassThroughResponse.of(response.rawStatusCode(), serverHeaders, null));
+        }
+        return response.toEntity(Object.class)
+                .map(entity -> new ResponseEntity<>(entity.getBody(), entity.getHeaders(), entity.getStatusCode()));
+    }
+}
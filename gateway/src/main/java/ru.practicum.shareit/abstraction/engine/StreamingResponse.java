@@ -0,0 +1,39 @@
+package ru.practicum.shareit.abstraction.engine;
+
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import static ru.practicum.shareit.abstraction.engine.PassThroughResponse.PASS_THROUGH_HEADERS;
+
+public class StreamingResponse {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private StreamingResponse() {
+    }
+
+    public static void writeHead(int status, HttpHeaders serverHeaders, HttpServletResponse response) {
+        response.setStatus(status);
+        for (String name : PASS_THROUGH_HEADERS) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        }
+    }
+
+    public static void copy(InputStream body, HttpServletResponse response) throws IOException {
+        OutputStream out = response.getOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+}
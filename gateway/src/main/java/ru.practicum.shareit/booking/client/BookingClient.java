@@ -2,15 +2,18 @@ package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.abstraction.GatewayClient;
+import ru.practicum.shareit.abstraction.engine.ProxyEngineFactory;
+import ru.practicum.shareit.booking.BookingDecisionBatchDtoIn;
 import ru.practicum.shareit.booking.BookingDtoIn;
 import ru.practicum.shareit.booking.State;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 import static ru.practicum.shareit.util.UtilConstants.BOOKING_PATH;
@@ -20,47 +23,65 @@ import static ru.practicum.shareit.util.UtilConstants.BOOKING_STATE;
 public class BookingClient extends GatewayClient {
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + BOOKING_PATH))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ProxyEngineFactory engineFactory) {
+        super(engineFactory.create(serverUrl + BOOKING_PATH));
     }
 
-    public ResponseEntity<Object> getAllByUserId(Integer from, Integer size, Long userId, State state) {
-        Map<String, Object> params = Map.of(
+    public Mono<ResponseEntity<Object>> getAllByUserId(Integer from, Integer size, Long userId, State state,
+                                                   String after) {
+        Map<String, Object> params = new HashMap<>(Map.of(
                 BOOKING_STATE, state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?" + BOOKING_STATE + "={" + BOOKING_STATE + "}&from={from}&size={size}",
-                userId, params);
+        ));
+        return get(withCursor("?" + BOOKING_STATE + "={" + BOOKING_STATE + "}&from={from}&size={size}",
+                params, after), userId, params);
     }
 
-    public ResponseEntity<Object> getAllByOwnerId(Integer from, Integer size, Long userId, State state) {
-        Map<String, Object> params = Map.of(
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(Integer from, Integer size, Long userId, State state,
+                                                   String after) {
+        Map<String, Object> params = new HashMap<>(Map.of(
                 BOOKING_STATE, state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?" + BOOKING_STATE + "={" + BOOKING_STATE + "}&from={from}&size={size}",
-                userId, params);
+        ));
+        return get(withCursor("/owner?" + BOOKING_STATE + "={" + BOOKING_STATE + "}&from={from}&size={size}",
+                params, after), userId, params);
     }
 
-    public ResponseEntity<Object> getById(Long bookingId, Long userId) {
+    public Mono<ResponseEntity<Object>> getCountsByUserId(Long userId) {
+        return get("/counts", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getCountsByOwnerId(Long userId) {
+        return get("/owner/counts", userId);
+    }
+
+    public void exportByUserId(Long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, response);
+    }
+
+    public void exportByOwnerId(Long userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId, response);
+    }
+
+    public Mono<ResponseEntity<Object>> getById(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> post(BookingDtoIn bookingDtoIn, Long userId) {
+    public Mono<ResponseEntity<Object>> post(BookingDtoIn bookingDtoIn, Long userId) {
         return post("", userId, bookingDtoIn);
     }
 
-    public ResponseEntity<Object> put(BookingDtoIn bookingDtoIn, Long userId) {
+    public Mono<ResponseEntity<Object>> put(BookingDtoIn bookingDtoIn, Long userId) {
         return put("", userId, bookingDtoIn);
     }
 
-    public ResponseEntity<Object> patch(Long bookingId, long userId, boolean approved) {
+    public Mono<ResponseEntity<Object>> patch(Long bookingId, long userId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
+
+    public Mono<ResponseEntity<Object>> patchAll(BookingDecisionBatchDtoIn dtoIn, long userId) {
+        return patch("", userId, dtoIn);
+    }
 }
@@ -5,14 +5,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.BookingDecisionBatchDtoIn;
 import ru.practicum.shareit.booking.BookingDtoIn;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.exception.RentTimeConstraintException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 import static ru.practicum.shareit.util.UtilConstants.*;
 
@@ -26,33 +30,65 @@ public class BookingGatewayController {
     private final BookingClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getAllByUserId(
+    public Mono<ResponseEntity<Object>> getAllByUserId(
             @RequestParam(defaultValue = DEFAULT_FROM) @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) @Positive Integer limit,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long bookerId,
-            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String str) {
+            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String str,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
 
         State state = State.fromString(str);
-        log.info("Received GET {} request, from = {}, size = {}, bookerId = {}, state = {}.",
-                BOOKING_PATH, from, limit, bookerId, state);
-        return client.getAllByUserId(from, limit, bookerId, state);
+        log.info("Received GET {} request, from = {}, size = {}, bookerId = {}, state = {}, after = {}.",
+                BOOKING_PATH, from, limit, bookerId, state, after);
+        return client.getAllByUserId(from, limit, bookerId, state, after);
     }
 
     @GetMapping("owner")
-    public ResponseEntity<Object> getAllByOwnerId(
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(
             @RequestParam(defaultValue = DEFAULT_FROM) @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) @Positive Integer limit,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long itemOwnerId,
-            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String str) {
+            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String str,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
 
         State state = State.fromString(str);
-        log.info("Received GET {}/owner request, from = {}, size = {}, itemOwnerId = {}, state = {}.",
-                BOOKING_PATH, from, limit, itemOwnerId, state);
-        return client.getAllByOwnerId(from, limit, itemOwnerId, state);
+        log.info("Received GET {}/owner request, from = {}, size = {}, itemOwnerId = {}, state = {}, after = {}.",
+                BOOKING_PATH, from, limit, itemOwnerId, state, after);
+        return client.getAllByOwnerId(from, limit, itemOwnerId, state, after);
+    }
+
+    @GetMapping("counts")
+    public Mono<ResponseEntity<Object>> getCountsByUserId(
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long bookerId) {
+        log.info("Received GET {}/counts request, bookerId = {}.", BOOKING_PATH, bookerId);
+        return client.getCountsByUserId(bookerId);
+    }
+
+    @GetMapping("owner/counts")
+    public Mono<ResponseEntity<Object>> getCountsByOwnerId(
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long itemOwnerId) {
+        log.info("Received GET {}/owner/counts request, itemOwnerId = {}.", BOOKING_PATH, itemOwnerId);
+        return client.getCountsByOwnerId(itemOwnerId);
+    }
+
+    @GetMapping("export")
+    public void exportByUserId(
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long bookerId,
+            HttpServletResponse response) throws IOException {
+        log.info("Received GET {}/export request, bookerId = {}.", BOOKING_PATH, bookerId);
+        client.exportByUserId(bookerId, response);
+    }
+
+    @GetMapping("owner/export")
+    public void exportByOwnerId(
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long itemOwnerId,
+            HttpServletResponse response) throws IOException {
+        log.info("Received GET {}/owner/export request, itemOwnerId = {}.", BOOKING_PATH, itemOwnerId);
+        client.exportByOwnerId(itemOwnerId, response);
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<Object> getById(
+    public Mono<ResponseEntity<Object>> getById(
             @PathVariable("id") @Positive Long bookingId,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long userId) {
         log.info("Received GET {}/{} request, userId = {}.",
@@ -61,7 +97,7 @@ public class BookingGatewayController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> post(
+    public Mono<ResponseEntity<Object>> post(
             @RequestBody @Valid BookingDtoIn dtoIn,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long bookerId) {
         validateRentTime(dtoIn);
@@ -71,7 +107,7 @@ public class BookingGatewayController {
     }
 
     @PutMapping
-    public ResponseEntity<Object> put(
+    public Mono<ResponseEntity<Object>> put(
             @RequestBody @Valid BookingDtoIn dtoIn,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long bookerId) {
         validateRentTime(dtoIn);
@@ -81,7 +117,7 @@ public class BookingGatewayController {
     }
 
     @PatchMapping("{id}")
-    public ResponseEntity<Object> patch(
+    public Mono<ResponseEntity<Object>> patch(
             @PathVariable("id") @Positive Long bookingId,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long itemOwnerId,
             @RequestParam boolean approved) {
@@ -90,6 +126,15 @@ public class BookingGatewayController {
         return client.patch(bookingId, itemOwnerId, approved);
     }
 
+    @PatchMapping
+    public Mono<ResponseEntity<Object>> patchAll(
+            @RequestBody @Valid BookingDecisionBatchDtoIn dtoIn,
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long itemOwnerId) {
+        log.info("Received PATCH {} request, decisions = {}, itemOwnerId = {}.",
+                BOOKING_PATH, dtoIn.getDecisions().size(), itemOwnerId);
+        return client.patchAll(dtoIn, itemOwnerId);
+    }
+
     private void validateRentTime(BookingDtoIn dtoIn) {
         boolean b1 = dtoIn.getStart().isAfter(dtoIn.getEnd());
         boolean b2 = dtoIn.getStart().equals(dtoIn.getEnd());
@@ -13,6 +13,8 @@ import org.springframework.web.server.MethodNotAllowedException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import ru.practicum.shareit.booking.exception.RentTimeConstraintException;
 import ru.practicum.shareit.booking.exception.UnknownStateException;
+import ru.practicum.shareit.item.exception.AvailabilityWindowException;
+import ru.practicum.shareit.user.exception.UnknownUserException;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -24,6 +26,7 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({
             RentTimeConstraintException.class,
+            AvailabilityWindowException.class,
             IllegalArgumentException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -46,6 +49,16 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
                 status);
     }
 
+    @ExceptionHandler(value = UnknownUserException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<Object> handleUnknownUser(
+            UnknownUserException e, WebRequest request) {
+        log.info(e.getMessage());
+        return new ResponseEntity<>(
+                responseBody(HttpStatus.NOT_FOUND, e.getMessage(), request),
+                HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(value = MethodNotAllowedException.class)
     @ResponseStatus(HttpStatus.METHOD_NOT_ALLOWED)
     public ResponseEntity<Object> handleMethodNotAllowedException(
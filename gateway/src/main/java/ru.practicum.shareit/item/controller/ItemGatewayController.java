@@ -2,17 +2,21 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.CommentDtoIn;
 import ru.practicum.shareit.item.ItemDtoIn;
 import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.exception.AvailabilityWindowException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Map;
 
@@ -28,31 +32,33 @@ public class ItemGatewayController {
     private final ItemClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getAllByOwnerId(
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(
             @RequestParam(defaultValue = DEFAULT_FROM) @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) @Positive Integer limit,
-            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long ownerId) {
-        log.info("Received GET {} request, from = {}, limit = {}, ownerId = {}.",
-                ITEM_PATH, from, limit, ownerId);
-        return client.getAllByOwnerId(from, limit, ownerId);
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long ownerId,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {} request, from = {}, limit = {}, ownerId = {}, after = {}.",
+                ITEM_PATH, from, limit, ownerId, after);
+        return client.getAllByOwnerId(from, limit, ownerId, after);
     }
 
     @GetMapping("search")
-    public ResponseEntity<Object> searchByNameOrDescription(
+    public Mono<ResponseEntity<Object>> searchByNameOrDescription(
             @RequestParam(defaultValue = DEFAULT_FROM) @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) @Positive Integer limit,
             @RequestParam String text,
-            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long userId) {
-        log.info("Received GET {}/search request, from = {}, limit = {}, text = {}.",
-                ITEM_PATH, from, limit, text);
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long userId,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {}/search request, from = {}, limit = {}, text = {}, after = {}.",
+                ITEM_PATH, from, limit, text, after);
         if (text.isBlank()) {
-            return ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList());
+            return Mono.just(ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList()));
         }
-        return client.searchByNameOrDescription(from, limit, text, userId);
+        return client.searchByNameOrDescription(from, limit, text, userId, after);
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<Object> getById(
+    public Mono<ResponseEntity<Object>> getById(
             @PathVariable("id") @Positive Long itemId,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long ownerId) {
         log.info("Received GET {}/{} request, ownerId = {}.",
@@ -60,8 +66,20 @@ public class ItemGatewayController {
         return client.getById(itemId, ownerId);
     }
 
+    @GetMapping("{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @PathVariable("id") @Positive Long itemId,
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        validateAvailabilityWindow(from, to);
+        log.info("Received GET {}/{}/availability request, userId = {}, from = {}, to = {}.",
+                ITEM_PATH, itemId, userId, from, to);
+        return client.getAvailability(itemId, userId, from, to);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> post(
+    public Mono<ResponseEntity<Object>> post(
             @RequestBody @Valid ItemDtoIn dtoIn,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long ownerId) {
         log.info("Received POST {} request, dtoIn = {}, ownerId = {}.",
@@ -70,7 +88,7 @@ public class ItemGatewayController {
     }
 
     @PutMapping
-    public ResponseEntity<Object> put(
+    public Mono<ResponseEntity<Object>> put(
             @RequestBody @Valid ItemDtoIn dtoIn,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long ownerId) {
         log.info("Received PUT {} request, dtoIn = {}, ownerId = {}.",
@@ -79,7 +97,7 @@ public class ItemGatewayController {
     }
 
     @PatchMapping("{id}")
-    public ResponseEntity<Object> patch(
+    public Mono<ResponseEntity<Object>> patch(
             @PathVariable("id") @Positive Long itemId,
             @RequestBody Map<String, Object> fields,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long ownerId) {
@@ -89,7 +107,7 @@ public class ItemGatewayController {
     }
 
     @PostMapping("{id}/comment")
-    public ResponseEntity<Object> postComment(
+    public Mono<ResponseEntity<Object>> postComment(
             @PathVariable("id") Long itemId,
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long authorId,
             @RequestBody @Valid CommentDtoIn commentDtoIn) {
@@ -97,4 +115,14 @@ public class ItemGatewayController {
                 ITEM_PATH, itemId, authorId, commentDtoIn);
         return client.postComment(itemId, authorId, commentDtoIn);
     }
+
+    private void validateAvailabilityWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new AvailabilityWindowException("Error! Availability window start must be before its end.");
+        }
+        if (from.plusDays(AVAILABILITY_MAX_DAYS).isBefore(to)) {
+            throw new AvailabilityWindowException("Error! Availability window must not exceed "
+                    + AVAILABILITY_MAX_DAYS + " days.");
+        }
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.RequestDtoIn;
 import ru.practicum.shareit.request.client.RequestClient;
 
@@ -15,8 +16,7 @@ import javax.validation.constraints.PositiveOrZero;
 import java.util.Collections;
 import java.util.Objects;
 
-import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
-import static ru.practicum.shareit.util.UtilConstants.REQUESTS_PATH;
+import static ru.practicum.shareit.util.UtilConstants.*;
 
 @Slf4j
 @RestController
@@ -28,7 +28,7 @@ public class RequestGatewayController {
     private final RequestClient client;
 
     @GetMapping("{id}")
-    public ResponseEntity<Object> getById(@PathVariable("id") @Positive Long id,
+    public Mono<ResponseEntity<Object>> getById(@PathVariable("id") @Positive Long id,
                                           @RequestHeader(value = OWNER_ID_HEADER) @Positive Long authorId) {
         log.info("Received GET {}/{} request, authorId = {}.",
                 REQUESTS_PATH, id, authorId);
@@ -36,7 +36,7 @@ public class RequestGatewayController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> post(@RequestBody @Valid RequestDtoIn dtoIn,
+    public Mono<ResponseEntity<Object>> post(@RequestBody @Valid RequestDtoIn dtoIn,
                                        @RequestHeader(value = OWNER_ID_HEADER) @Positive Long authorId) {
         log.info("Received POST {} request, dtoIn = {}, authorId = {}.",
                 REQUESTS_PATH, dtoIn, authorId);
@@ -44,20 +44,25 @@ public class RequestGatewayController {
     }
 
     @GetMapping("all")
-    public ResponseEntity<Object> findAll(
+    public Mono<ResponseEntity<Object>> findAll(
             @RequestParam(required = false) @PositiveOrZero Integer from,
             @RequestParam(value = "size", required = false) @Positive Integer limit,
-            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long authorId) {
-        log.info("Received GET {}/all request, from = {}, limit = {}, authorId = {}.",
-                REQUESTS_PATH, from, limit, authorId);
+            @RequestHeader(value = OWNER_ID_HEADER) @Positive Long authorId,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {}/all request, from = {}, limit = {}, authorId = {}, after = {}.",
+                REQUESTS_PATH, from, limit, authorId, after);
+        if (Objects.nonNull(after)) {
+            return client.findAll(Objects.requireNonNullElse(from, Integer.valueOf(DEFAULT_FROM)),
+                    Objects.requireNonNullElse(limit, Integer.valueOf(DEFAULT_LIMIT)), authorId, after);
+        }
         if (Objects.isNull(from) || Objects.isNull(limit)) {
-            return ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList());
+            return Mono.just(ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList()));
         }
-        return client.findAll(from, limit, authorId);
+        return client.findAll(from, limit, authorId, null);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllCreatedByUser(
+    public Mono<ResponseEntity<Object>> findAllCreatedByUser(
             @RequestHeader(value = OWNER_ID_HEADER) @Positive Long authorId) {
         log.info("Received GET {}/all request, authorId = {}.",
                 REQUESTS_PATH, authorId);
@@ -2,12 +2,11 @@ package ru.practicum.shareit.user.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.abstraction.GatewayClient;
+import ru.practicum.shareit.abstraction.engine.ProxyEngineFactory;
 import ru.practicum.shareit.user.UserDtoIn;
 
 import java.util.Map;
@@ -18,35 +17,31 @@ import static ru.practicum.shareit.util.UtilConstants.USERS_PATH;
 public class UserClient extends GatewayClient {
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + USERS_PATH))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, ProxyEngineFactory engineFactory) {
+        super(engineFactory.create(serverUrl + USERS_PATH));
     }
 
-    public ResponseEntity<Object> getById(Long userId) {
+    public Mono<ResponseEntity<Object>> getById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> post(UserDtoIn dtoIn) {
+    public Mono<ResponseEntity<Object>> post(UserDtoIn dtoIn) {
         return post("", dtoIn);
     }
 
-    public ResponseEntity<Object> put(UserDtoIn dtoIn) {
+    public Mono<ResponseEntity<Object>> put(UserDtoIn dtoIn) {
         return put("", dtoIn);
     }
 
-    public ResponseEntity<Object> patch(Long userId, Map<String, Object> fields) {
+    public Mono<ResponseEntity<Object>> patch(Long userId, Map<String, Object> fields) {
         return patch("/" + userId, fields);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public void delete(Long userId) {
-        delete("/" + userId);
+    public Mono<ResponseEntity<Object>> delete(Long userId) {
+        return delete("/" + userId);
     }
 }
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.user.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.util.config.UserCheckProperties;
+
+import java.io.IOException;
+
+public class UserExistenceChecker {
+
+    public static final String CACHE_NAME = "gatewayUserExists";
+
+    private final UserClient client;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Boolean> cache;
+
+    public UserExistenceChecker(UserClient client, UserCheckProperties properties, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        long ttl = properties.getTtl().toNanos();
+        long negativeTtl = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<Long, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Long key, Boolean exists, long currentTime) {
+                        return exists ? ttl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, exists, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean exists(Long userId) {
+        Boolean exists = cache.get(userId, this::load);
+        return exists == null || exists;
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public void invalidateCreated(@Nullable ResponseEntity<Object> response) {
+        if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return;
+        }
+        try {
+            Object body = response.getBody();
+            JsonNode user = body instanceof byte[]
+                    ? objectMapper.readTree((byte[]) body)
+                    : objectMapper.valueToTree(body);
+            JsonNode id = user.get("id");
+            if (id != null && id.canConvertToLong()) {
+                invalidate(id.asLong());
+            }
+        } catch (IOException e) {
+            cache.asMap().values().removeIf(exists -> !exists);
+        }
+    }
+
+    private Boolean load(Long userId) {
+        ResponseEntity<Object> response = client.getById(userId).block();
+        if (response == null) {
+            return null;
+        }
+        if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+            return false;
+        }
+        return response.getStatusCode().is2xxSuccessful() ? true : null;
+    }
+}
@@ -2,11 +2,14 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.UserDtoIn;
 import ru.practicum.shareit.user.client.UserClient;
+import ru.practicum.shareit.user.client.UserExistenceChecker;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -22,41 +25,45 @@ import static ru.practicum.shareit.util.UtilConstants.USERS_PATH;
 public class UserGatewayController {
 
     private final UserClient client;
+    private final ObjectProvider<UserExistenceChecker> existenceChecker;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         log.info("Received GET {} request.", USERS_PATH);
         return client.getAll();
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<Object> getById(@PathVariable @Positive Long id) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable @Positive Long id) {
         log.info("Received GET {}/{} request.", USERS_PATH, id);
         return client.getById(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> post(@RequestBody @Valid UserDtoIn dtoIn) {
+    public Mono<ResponseEntity<Object>> post(@RequestBody @Valid UserDtoIn dtoIn) {
         log.info("Received POST {} request, userDtoIn = {}", USERS_PATH, dtoIn);
-        return client.post(dtoIn);
+        return client.post(dtoIn)
+                .doOnSuccess(response -> existenceChecker.ifAvailable(checker -> checker.invalidateCreated(response)));
     }
 
     @PutMapping
-    public ResponseEntity<Object> put(@RequestBody @Valid UserDtoIn dtoIn) {
+    public Mono<ResponseEntity<Object>> put(@RequestBody @Valid UserDtoIn dtoIn) {
         log.info("Received PUT {} request, userDtoIn = {}", USERS_PATH, dtoIn);
         return client.put(dtoIn);
     }
 
     @PatchMapping("{id}")
-    public ResponseEntity<Object> patch(@PathVariable @Positive Long id,
+    public Mono<ResponseEntity<Object>> patch(@PathVariable @Positive Long id,
                                         @RequestBody Map<String, Object> fields) {
         log.info("Received PATCH {}/{} request, fields = {}", USERS_PATH, id, fields);
         return client.patch(id, fields);
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable @Positive Long id) {
+    public Mono<Void> delete(@PathVariable @Positive Long id) {
         log.info("Received DELETE {}/{} request.", USERS_PATH, id);
-        client.delete(id);
+        return client.delete(id)
+                .doOnSuccess(response -> existenceChecker.ifAvailable(checker -> checker.invalidate(id)))
+                .then();
     }
 }
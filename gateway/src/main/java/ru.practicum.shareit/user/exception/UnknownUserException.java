@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user.exception;
+
+public class UnknownUserException extends RuntimeException {
+
+    public UnknownUserException(Long id) {
+        super("Error! User id:" + id + " not found.");
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.user.interceptor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.user.client.UserExistenceChecker;
+import ru.practicum.shareit.user.exception.UnknownUserException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
+
+@RequiredArgsConstructor
+public class UserCheckInterceptor implements HandlerInterceptor {
+
+    private final UserExistenceChecker checker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(OWNER_ID_HEADER);
+        if (header == null) {
+            return true;
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(header);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        if (!checker.exists(userId)) {
+            throw new UnknownUserException(userId);
+        }
+        return true;
+    }
+}
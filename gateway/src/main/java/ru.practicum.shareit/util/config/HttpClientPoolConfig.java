@@ -0,0 +1,86 @@
+package ru.practicum.shareit.util.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+@EnableConfigurationProperties(HttpClientPoolProperties.class)
+public class HttpClientPoolConfig {
+
+    private static final String POOL_METRIC = "shareit.gateway.http.pool";
+
+    @Bean
+    public PoolingHttpClientConnectionManager gatewayConnectionManager(HttpClientPoolProperties properties,
+                                                                       MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        bindPoolStats(connectionManager, meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient gatewayHttpClient(PoolingHttpClientConnectionManager gatewayConnectionManager,
+                                                 HttpClientPoolProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getLeaseTimeout().toMillis())
+                .build();
+        long keepAlive = properties.getKeepAlive().toMillis();
+        return HttpClients.custom()
+                .setConnectionManager(gatewayConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gatewayConnectionProvider(HttpClientPoolProperties properties) {
+        return ConnectionProvider.builder("shareit-gateway")
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireTimeout(properties.getLeaseTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector gatewayClientConnector(ConnectionProvider gatewayConnectionProvider,
+                                                      HttpClientPoolProperties properties) {
+        return new ReactorClientHttpConnector(HttpClient.create(gatewayConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis()));
+    }
+
+    private void bindPoolStats(PoolingHttpClientConnectionManager connectionManager, MeterRegistry meterRegistry) {
+        gauge(meterRegistry, connectionManager, "leased", cm -> cm.getTotalStats().getLeased());
+        gauge(meterRegistry, connectionManager, "pending", cm -> cm.getTotalStats().getPending());
+        gauge(meterRegistry, connectionManager, "available", cm -> cm.getTotalStats().getAvailable());
+        gauge(meterRegistry, connectionManager, "max", cm -> cm.getTotalStats().getMax());
+    }
+
+    private void gauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager connectionManager,
+                       String state, ToDoubleFunction<PoolingHttpClientConnectionManager> value) {
+        Gauge.builder(POOL_METRIC, connectionManager, value)
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.client.pool")
+public class HttpClientPoolProperties {
+
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration leaseTimeout = Duration.ofSeconds(2);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleEviction = Duration.ofSeconds(60);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+}
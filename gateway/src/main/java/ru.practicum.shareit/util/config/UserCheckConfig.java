@@ -0,0 +1,43 @@
+package ru.practicum.shareit.util.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.user.client.UserClient;
+import ru.practicum.shareit.user.client.UserExistenceChecker;
+import ru.practicum.shareit.user.interceptor.UserCheckInterceptor;
+
+import static ru.practicum.shareit.util.UtilConstants.BOOKING_PATH;
+import static ru.practicum.shareit.util.UtilConstants.ITEM_PATH;
+import static ru.practicum.shareit.util.UtilConstants.REQUESTS_PATH;
+
+@Configuration
+@EnableConfigurationProperties(UserCheckProperties.class)
+@ConditionalOnProperty(value = "shareit-gateway.user-check.enabled", havingValue = "true")
+public class UserCheckConfig implements WebMvcConfigurer {
+
+    private final UserExistenceChecker checker;
+
+    public UserCheckConfig(UserClient userClient, UserCheckProperties properties, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.checker = new UserExistenceChecker(userClient, properties, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public UserExistenceChecker userExistenceChecker() {
+        return checker;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new UserCheckInterceptor(checker))
+                .addPathPatterns(ITEM_PATH, ITEM_PATH + "/**",
+                        BOOKING_PATH, BOOKING_PATH + "/**",
+                        REQUESTS_PATH, REQUESTS_PATH + "/**");
+    }
+}
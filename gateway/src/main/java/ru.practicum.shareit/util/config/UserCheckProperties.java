@@ -0,0 +1,17 @@
+package ru.practicum.shareit.util.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.user-check")
+public class UserCheckProperties {
+
+    private boolean enabled = false;
+    private long maxSize = 100000;
+    private Duration ttl = Duration.ofMinutes(5);
+    private Duration negativeTtl = Duration.ofSeconds(10);
+
+}
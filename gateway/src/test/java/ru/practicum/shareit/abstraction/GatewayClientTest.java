@@ -0,0 +1,345 @@
+package ru.practicum.shareit.abstraction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.abstraction.engine.CoalescingProxyEngine;
+import ru.practicum.shareit.abstraction.engine.ProxyEngineFactory;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.util.config.HttpClientPoolConfig;
+import ru.practicum.shareit.util.config.HttpClientPoolProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.util.UtilConstants.CURSOR_PARAM;
+import static ru.practicum.shareit.util.UtilConstants.ITEM_PATH;
+import static ru.practicum.shareit.util.UtilConstants.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
+
+class GatewayClientTest {
+
+    private static final HttpClientPoolConfig poolConfig = new HttpClientPoolConfig();
+    private static final HttpClientPoolProperties poolProperties = new HttpClientPoolProperties();
+    private static final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private static DisposableServer server;
+    private static CloseableHttpClient httpClient;
+    private static ConnectionProvider connectionProvider;
+    private static final AtomicInteger slowHits = new AtomicInteger();
+    private static final AtomicReference<CountDownLatch> exportGate = new AtomicReference<>();
+
+    @BeforeAll
+    static void startServer() {
+        httpClient = poolConfig.gatewayHttpClient(
+                poolConfig.gatewayConnectionManager(poolProperties, meterRegistry), poolProperties);
+        connectionProvider = poolConfig.gatewayConnectionProvider(poolProperties);
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get(ITEM_PATH + "/1", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"id\":1,\"userId\":"
+                                        + request.requestHeaders().get(OWNER_ID_HEADER) + "}")))
+                        .get(ITEM_PATH + "/2", (request, response) -> response
+                                .status(HttpStatus.NOT_FOUND.value())
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"error\":\"not found\"}")))
+                        .get(ITEM_PATH + "/4", (request, response) -> "\"v1\""
+                                .equals(request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH))
+                                ? response.status(HttpStatus.NOT_MODIFIED.value())
+                                .header(HttpHeaders.ETAG, "\"v1\"")
+                                .send()
+                                : response.header("Content-Type", "application/json")
+                                .header(HttpHeaders.ETAG, "\"v1\"")
+                                .sendString(Mono.just("{\"id\":4}")))
+                        .get(ITEM_PATH + "/5/availability", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"uri\":\"" + request.uri() + "\"}")))
+                        .get(ITEM_PATH, (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .header(NEXT_CURSOR_HEADER, "next")
+                                .sendString(Mono.just("[{\"uri\":\"" + request.uri() + "\"}]")))
+                        .get(ITEM_PATH + "/export", (request, response) -> response
+                                .header("Content-Type", MediaType.APPLICATION_NDJSON_VALUE)
+                                .send(Flux.concat(
+                                                Mono.just("{\"id\":1}\n"),
+                                                Mono.fromCallable(() -> exportGate.get().await(5, TimeUnit.SECONDS))
+                                                        .subscribeOn(Schedulers.boundedElastic())
+                                                        .thenReturn("{\"id\":2}\n"))
+                                        .map(line -> Unpooled.copiedBuffer(line, StandardCharsets.UTF_8)),
+                                        chunk -> true))
+                        .put(ITEM_PATH + "/3", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"id\":3}")))
+                        .get(ITEM_PATH + "/3", (request, response) -> {
+                            slowHits.incrementAndGet();
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.delay(Duration.ofMillis(500))
+                                            .thenReturn("{\"id\":3,\"userId\":"
+                                                    + request.requestHeaders().get(OWNER_ID_HEADER) + "}"));
+                        }))
+                .bindNow();
+    }
+
+    @AfterAll
+    @SneakyThrows
+    static void stopServer() {
+        server.disposeNow();
+        httpClient.close();
+        connectionProvider.disposeLater().block();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    void get_whenServerRespondsOk_returnBody(String engine) {
+        GatewayClient client = client(engine, false);
+        ResponseEntity<Object> response = client.get("/1", 7L).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 1, "userId", 7));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    void get_whenPassThrough_returnServerBytesAndContentType(String engine) {
+        GatewayClient client = client(engine, true);
+        ResponseEntity<Object> response = client.get("/1", 7L).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getBody()).isInstanceOf(byte[].class);
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"id\":1,\"userId\":7}");
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking,false", "reactive,false", "blocking,true", "reactive,true"})
+    void get_whenServerRespondsNotFound_returnStatusAndErrorBody(String engine, boolean passThrough) {
+        GatewayClient client = client(engine, passThrough);
+        ResponseEntity<Object> response = client.get("/2", 7L).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"error\":\"not found\"}");
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking,false", "reactive,false", "blocking,true", "reactive,true"})
+    void get_whenClientSendsMatchingIfNoneMatch_returnNotModifiedWithEtag(String engine, boolean passThrough) {
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+        try {
+            ResponseEntity<Object> response = client(engine, passThrough).get("/4", 7L).block();
+            assertThat(response).isNotNull();
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"v1\"");
+            assertThat(response.hasBody()).isFalse();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    void get_whenPassThroughWithoutIfNoneMatch_returnBodyAndEtag(String engine) {
+        ResponseEntity<Object> response = client(engine, true).get("/4", 7L).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void get_whenBlocking_connectionReturnedToSharedPool() {
+        client("blocking", true).get("/1", 7L).block();
+        assertThat(poolGauge("leased")).isZero();
+        assertThat(poolGauge("pending")).isZero();
+        assertThat(poolGauge("available")).isGreaterThanOrEqualTo(1);
+        assertThat(poolGauge("max")).isEqualTo(poolProperties.getMaxTotal());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    @SneakyThrows
+    void get_whenConcurrentIdenticalRequests_sendOneUpstreamRequest(String engine) {
+        GatewayClient client = client(engine, true);
+        int callers = 16;
+        slowHits.set(0);
+        double joinedBefore = coalescingCount("joined");
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return client.get("/3", 7L).block();
+            }));
+        }
+        start.countDown();
+        for (Future<ResponseEntity<Object>> future : futures) {
+            ResponseEntity<Object> response = future.get(5, TimeUnit.SECONDS);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8))
+                    .isEqualTo("{\"id\":3,\"userId\":7}");
+        }
+        executor.shutdown();
+        assertThat(slowHits.get()).isEqualTo(1);
+        assertThat(coalescingCount("joined") - joinedBefore).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void get_whenDifferentUsers_doNotCoalesce() {
+        GatewayClient client = client("reactive", true);
+        slowHits.set(0);
+        List<ResponseEntity<Object>> responses = Flux.merge(client.get("/3", 7L), client.get("/3", 8L))
+                .collectList()
+                .block();
+        assertThat(responses).hasSize(2);
+        assertThat(slowHits.get()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    @SneakyThrows
+    void get_whenSameUserWroteAfterReadStarted_doNotJoinEarlierRead(String engine) {
+        GatewayClient client = client(engine, true);
+        slowHits.set(0);
+        Future<ResponseEntity<Object>> earlier = client.get("/3", 7L).toFuture();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (slowHits.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        client.put("/3", 7L, Map.of("name", "changed")).block();
+        ResponseEntity<Object> later = client.get("/3", 7L).block();
+
+        assertThat(later).isNotNull();
+        assertThat(later.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(earlier.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(slowHits.get()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking,false", "reactive,false", "blocking,true", "reactive,true"})
+    void getAllByOwnerId_whenCursorGiven_forwardCursorAndReturnNextCursorHeader(String engine, boolean passThrough) {
+        ItemClient client = new ItemClient("http://localhost:" + server.port(), factory(engine, passThrough));
+        ResponseEntity<Object> response = client.getAllByOwnerId(0, 2, 7L, "abc").block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(NEXT_CURSOR_HEADER)).isEqualTo("next");
+        assertThat(body(response)).contains(CURSOR_PARAM + "=abc");
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking,false", "reactive,false", "blocking,true", "reactive,true"})
+    void getAvailability_whenWindowGiven_forwardWindow(String engine, boolean passThrough) {
+        ItemClient client = new ItemClient("http://localhost:" + server.port(), factory(engine, passThrough));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        ResponseEntity<Object> response = client.getAvailability(5L, 7L, from, from.plusDays(30)).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(response))
+                .contains("from=2030-01-01T10%3A00")
+                .contains("to=2030-01-31T10%3A00");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    @SneakyThrows
+    void stream_whenServerSendsLines_writeEachLineBeforeServerCompletes(String engine) {
+        GatewayClient client = client(engine, false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exportGate.set(new CountDownLatch(1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> export = executor.submit(() -> {
+                client.stream("/export", 7L, response);
+                return null;
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (response.getContentAsString().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}\n");
+            exportGate.get().countDown();
+            export.get(5, TimeUnit.SECONDS);
+        } finally {
+            exportGate.get().countDown();
+            executor.shutdownNow();
+        }
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "reactive"})
+    @SneakyThrows
+    void stream_whenServerRespondsError_passStatusAndBody(String engine) {
+        GatewayClient client = client(engine, false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        client.stream("/2", 7L, response);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(response.getContentAsString()).isEqualTo("{\"error\":\"not found\"}");
+    }
+
+    private double coalescingCount(String result) {
+        return meterRegistry.get(CoalescingProxyEngine.COALESCING_METRIC).tag("result", result).counter().count();
+    }
+
+    private double poolGauge(String state) {
+        return meterRegistry.get("shareit.gateway.http.pool").tag("state", state).gauge().value();
+    }
+
+    private String body(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        return body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : String.valueOf(body);
+    }
+
+    private GatewayClient client(String engine, boolean passThrough) {
+        return new GatewayClient(factory(engine, passThrough).create("http://localhost:" + server.port() + ITEM_PATH));
+    }
+
+    private ProxyEngineFactory factory(String engine, boolean passThrough) {
+        return new ProxyEngineFactory(engine, passThrough,
+                true, new RestTemplateBuilder(), WebClient.builder(), httpClient,
+                poolConfig.gatewayClientConnector(connectionProvider, poolProperties), meterRegistry);
+    }
+}
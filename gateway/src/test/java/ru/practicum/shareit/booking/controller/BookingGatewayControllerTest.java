@@ -9,16 +9,27 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import ru.practicum.shareit.booking.BookingDecisionBatchDtoIn;
+import ru.practicum.shareit.booking.BookingDecisionDtoIn;
 import ru.practicum.shareit.booking.BookingDtoIn;
 import ru.practicum.shareit.booking.client.BookingClient;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolationException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.util.UtilConstants.*;
@@ -105,4 +116,84 @@ class BookingGatewayControllerTest {
         verify(bookingClient, never())
                 .post(any(BookingDtoIn.class), any(Long.class));
     }
+
+    @SneakyThrows
+    @Test
+    void patchAll_whenDecisionsEmpty_returnBadRequest() {
+        performPatchAll(BookingDecisionBatchDtoIn.builder()
+                .decisions(List.of())
+                .build());
+    }
+
+    @SneakyThrows
+    @Test
+    void patchAll_whenTooManyDecisions_returnBadRequest() {
+        performPatchAll(BookingDecisionBatchDtoIn.builder()
+                .decisions(LongStream.rangeClosed(1, BOOKING_DECISIONS_MAX + 1)
+                        .mapToObj(id -> new BookingDecisionDtoIn(id, true))
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    @SneakyThrows
+    @Test
+    void patchAll_whenApprovedNull_returnBadRequest() {
+        performPatchAll(BookingDecisionBatchDtoIn.builder()
+                .decisions(List.of(new BookingDecisionDtoIn(1L, null)))
+                .build());
+    }
+
+    @SneakyThrows
+    @Test
+    void getCountsByOwnerId_whenOwnerIdNotPositive_rejectRequest() {
+        mvc.perform(get(bookingPath + "/owner/counts")
+                        .header(ownerIdHeader, 0L))
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof ConstraintViolationException));
+        verify(bookingClient, never()).getCountsByOwnerId(anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getCountsByUserId_whenBookerIdPositive_callClient() {
+        mvc.perform(get(bookingPath + "/counts")
+                        .header(ownerIdHeader, 1L))
+                .andExpect(status().isOk());
+        verify(bookingClient, times(1)).getCountsByUserId(1L);
+        verify(bookingClient, never()).getById(anyLong(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void exportByOwnerId_whenOwnerIdPositive_streamThroughClient() {
+        mvc.perform(get(bookingPath + "/owner/export")
+                        .header(ownerIdHeader, 1L))
+                .andExpect(status().isOk());
+        verify(bookingClient, times(1)).exportByOwnerId(eq(1L), any(HttpServletResponse.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportByUserId_whenBookerIdNotPositive_rejectRequest() {
+        mvc.perform(get(bookingPath + "/export")
+                        .header(ownerIdHeader, -1L))
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof ConstraintViolationException));
+        verify(bookingClient, never()).exportByUserId(anyLong(), any(HttpServletResponse.class));
+    }
+
+    @SneakyThrows
+    private void performPatchAll(BookingDecisionBatchDtoIn dtoIn) {
+        mvc.perform(patch(bookingPath)
+                        .header(ownerIdHeader, 1L)
+                        .content(mapper.writeValueAsString(dtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof MethodArgumentNotValidException));
+        verify(bookingClient, never())
+                .patchAll(any(BookingDecisionBatchDtoIn.class), anyLong());
+    }
 }
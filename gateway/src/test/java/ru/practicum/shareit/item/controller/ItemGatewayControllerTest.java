@@ -7,19 +7,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import ru.practicum.shareit.item.CommentDtoIn;
 import ru.practicum.shareit.item.ItemDtoIn;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.exception.AvailabilityWindowException;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.UtilConstants.AVAILABILITY_MAX_DAYS;
 import static ru.practicum.shareit.util.UtilConstants.ITEM_PATH;
 import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
 
@@ -105,4 +113,48 @@ class ItemGatewayControllerTest {
         verify(itemClient, never())
                 .post(any(ItemDtoIn.class), any(Long.class));
     }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenWindowEndsBeforeStart_returnBadRequest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        mvc.perform(get(itemPath + "/{id}/availability", 1)
+                        .param("from", from.toString())
+                        .param("to", from.minusDays(1).toString())
+                        .header(ownerIdHeader, 1))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof AvailabilityWindowException));
+        verify(itemClient, never())
+                .getAvailability(anyLong(), anyLong(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenWindowLongerThanLimit_returnBadRequest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        mvc.perform(get(itemPath + "/{id}/availability", 1)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(AVAILABILITY_MAX_DAYS + 1).toString())
+                        .header(ownerIdHeader, 1))
+                .andExpect(status().isBadRequest());
+        verify(itemClient, never())
+                .getAvailability(anyLong(), anyLong(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenYearLongWindow_forwardToServer() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = from.plusYears(1);
+        when(itemClient.getAvailability(1L, 2L, from, to))
+                .thenReturn(Mono.just(ResponseEntity.ok().build()));
+        mvc.perform(get(itemPath + "/{id}/availability", 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header(ownerIdHeader, 2))
+                .andExpect(request().asyncStarted());
+        verify(itemClient, times(1))
+                .getAvailability(1L, 2L, from, to);
+    }
 }
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.user.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit.abstraction.engine.ProxyEngineFactory;
+import ru.practicum.shareit.user.UserDtoIn;
+import ru.practicum.shareit.user.exception.UnknownUserException;
+import ru.practicum.shareit.user.interceptor.UserCheckInterceptor;
+import ru.practicum.shareit.util.config.UserCheckProperties;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
+import static ru.practicum.shareit.util.UtilConstants.USERS_PATH;
+
+class UserExistenceCheckerTest {
+
+    private static final AtomicInteger lookups = new AtomicInteger();
+    private static final AtomicBoolean created = new AtomicBoolean();
+    private static DisposableServer server;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserClient client;
+    private UserExistenceChecker checker;
+
+    @BeforeAll
+    static void startServer() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get(USERS_PATH + "/1", (request, response) -> {
+                            lookups.incrementAndGet();
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"id\":1}"));
+                        })
+                        .get(USERS_PATH + "/2", (request, response) -> {
+                            lookups.incrementAndGet();
+                            return response.status(HttpStatus.NOT_FOUND.value())
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"error\":\"not found\"}"));
+                        })
+                        .get(USERS_PATH + "/4", (request, response) -> {
+                            lookups.incrementAndGet();
+                            return created.get()
+                                    ? response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"id\":4}"))
+                                    : response.status(HttpStatus.NOT_FOUND.value()).send();
+                        })
+                        .post(USERS_PATH, (request, response) -> {
+                            created.set(true);
+                            return response.status(HttpStatus.CREATED.value())
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"id\":4,\"name\":\"new\",\"email\":\"new@test.com\"}"));
+                        })
+                        .get(USERS_PATH + "/3", (request, response) -> {
+                            lookups.incrementAndGet();
+                            return response.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).send();
+                        }))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        lookups.set(0);
+        created.set(false);
+        ProxyEngineFactory factory = new ProxyEngineFactory("reactive", true, false,
+                new RestTemplateBuilder(), WebClient.builder(), null, new ReactorClientHttpConnector(),
+                meterRegistry);
+        client = new UserClient("http://localhost:" + server.port(), factory);
+        checker = new UserExistenceChecker(client, new UserCheckProperties(), new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void exists_whenAskedRepeatedly_lookUpServerOnce() {
+        assertTrue(checker.exists(1L));
+        assertTrue(checker.exists(1L));
+        assertFalse(checker.exists(2L));
+        assertFalse(checker.exists(2L));
+        assertThat(lookups.get()).isEqualTo(2);
+        assertThat(cacheGets("hit")).isEqualTo(2);
+        assertThat(cacheGets("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void exists_whenServerFails_allowRequestWithoutCaching() {
+        assertTrue(checker.exists(3L));
+        assertTrue(checker.exists(3L));
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_whenUserDeleted_lookUpAgain() {
+        checker.exists(1L);
+        checker.invalidate(1L);
+        checker.exists(1L);
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidateCreated_whenUserCreatedAfterNegativeLookup_acceptIdImmediately() {
+        assertFalse(checker.exists(4L));
+        checker.invalidateCreated(client.post(UserDtoIn.builder().name("new").email("new@test.com").build()).block());
+        assertTrue(checker.exists(4L));
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void preHandle_whenHeaderHoldsUnknownUser_throwUnknownUserException() {
+        UserCheckInterceptor interceptor = new UserCheckInterceptor(checker);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(OWNER_ID_HEADER, "2");
+        assertThrows(UnknownUserException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+        MockHttpServletRequest known = new MockHttpServletRequest();
+        known.addHeader(OWNER_ID_HEADER, "1");
+        assertTrue(interceptor.preHandle(known, new MockHttpServletResponse(), new Object()));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object()));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", UserExistenceChecker.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -6,19 +6,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.UserDtoIn;
 import ru.practicum.shareit.user.client.UserClient;
+import ru.practicum.shareit.user.client.UserExistenceChecker;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.util.UtilConstants.USERS_PATH;
 
@@ -27,6 +35,8 @@ class UserGatewayControllerTest {
 
     @MockBean
     private UserClient userClient;
+    @MockBean
+    private UserExistenceChecker existenceChecker;
     @Autowired
     private ObjectMapper mapper;
     @Autowired
@@ -40,6 +50,22 @@ class UserGatewayControllerTest {
             .email("test@test.omg")
             .build();
 
+    @SneakyThrows
+    @Test
+    void post_whenUserCreated_invalidateCreatedIdInExistenceChecker() {
+        ResponseEntity<Object> created = ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", 4));
+        when(userClient.post(any(UserDtoIn.class))).thenReturn(Mono.just(created));
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.post(userPath)
+                        .content(mapper.writeValueAsString(userDtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated());
+        verify(existenceChecker, times(1)).invalidateCreated(created);
+    }
+
     @SneakyThrows
     @Test
     void post_whenEmailIncorrect_returnBadRequest() {
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.dto.DtoIn;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static ru.practicum.shareit.util.UtilConstants.BOOKING_DECISIONS_MAX;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionBatchDtoIn implements DtoIn {
+
+    @NotEmpty
+    @Size(max = BOOKING_DECISIONS_MAX)
+    private List<@Valid @NotNull BookingDecisionDtoIn> decisions;
+
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.dto.DtoIn;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDtoIn implements DtoIn {
+
+    @NotNull
+    @Positive
+    private Long bookingId;
+
+    @NotNull
+    private Boolean approved;
+
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.exception;
+
+public class AvailabilityWindowException extends IllegalArgumentException {
+
+    public AvailabilityWindowException(String message) {
+        super(message);
+    }
+}
@@ -8,16 +8,20 @@ public class UtilConstants {
     public static final String DATE_TIME_PATTERN = "yyyy-MM-dd'T'hh:mm:ss";
     public static final String DEFAULT_FROM = "0";
     public static final String DEFAULT_LIMIT = "10";
+    public static final String CURSOR_PARAM = "after";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     public static final String USERS_PATH = "/users";
 
     public static final String ITEM_PATH = "/items";
     public static final Sort ITEM_SORT = Sort.by("id").ascending();
+    public static final int AVAILABILITY_MAX_DAYS = 366;
 
     public static final String BOOKING_PATH = "/bookings";
     public static final String BOOKING_STATE = "state";
     public static final String BOOKING_STATE_DEFAULT = "ALL";
     public static final Sort BOOKING_SORT = Sort.by("start").descending();
+    public static final int BOOKING_DECISIONS_MAX = 100;
 
     public static final String REQUESTS_PATH = "/requests";
 }
@@ -10,6 +10,9 @@ import ru.practicum.shareit.dto.DtoIn;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public abstract class AbstractService<I extends DtoIn, O extends DtoOut, E extends EntityClass> {
@@ -25,6 +28,15 @@ public abstract class AbstractService<I extends DtoIn, O extends DtoOut, E exten
         }
     }
 
+    protected List<E> orderByIds(List<Long> ids, List<E> entities) {
+        Map<Long, E> byId = entities.stream()
+                .collect(Collectors.toMap(EntityClass::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     public abstract E toEntity(I dtoIn);
 
     public abstract O toDto(E entity);
@@ -2,11 +2,18 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.BookingDecisionBatchDtoIn;
 import ru.practicum.shareit.booking.BookingDtoIn;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.pager.CursorResponse;
 
 import java.util.List;
 
@@ -21,25 +28,66 @@ public class BookingController {
     private final BookingService bookingService;
 
     @GetMapping
-    public List<BookingDtoOut> getAllByUserId(
+    public ResponseEntity<List<BookingDtoOut>> getAllByUserId(
             @RequestParam(defaultValue = DEFAULT_FROM) Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) Integer limit,
             @RequestHeader(value = OWNER_ID_HEADER) Long bookerId,
-            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String state) {
-        log.info("Received GET {} request, from = {}, size = {}, bookerId = {}, state = {}.",
-                BOOKING_PATH, from, limit, bookerId, state);
-        return bookingService.findAllByBookerId(from, limit, bookerId, State.fromString(state));
+            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String state,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {} request, from = {}, size = {}, bookerId = {}, state = {}, after = {}.",
+                BOOKING_PATH, from, limit, bookerId, state, after);
+        if (after != null) {
+            return CursorResponse.of(bookingService.findAllByBookerIdAfter(
+                    after, limit, bookerId, State.fromString(state)));
+        }
+        return ResponseEntity.ok(bookingService.findAllByBookerId(from, limit, bookerId, State.fromString(state)));
     }
 
     @GetMapping("owner")
-    public List<BookingDtoOut> getAllByOwnerId(
+    public ResponseEntity<List<BookingDtoOut>> getAllByOwnerId(
             @RequestParam(defaultValue = DEFAULT_FROM) Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) Integer limit,
             @RequestHeader(value = OWNER_ID_HEADER) Long itemOwnerId,
-            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String state) {
-        log.info("Received GET {}/owner request, from = {}, size = {}, itemOwnerId = {}, state = {}.",
-                BOOKING_PATH, from, limit, itemOwnerId, state);
-        return bookingService.findAllByItemOwnerId(from, limit, itemOwnerId, State.fromString(state));
+            @RequestParam(value = BOOKING_STATE, defaultValue = BOOKING_STATE_DEFAULT) String state,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {}/owner request, from = {}, size = {}, itemOwnerId = {}, state = {}, after = {}.",
+                BOOKING_PATH, from, limit, itemOwnerId, state, after);
+        if (after != null) {
+            return CursorResponse.of(bookingService.findAllByItemOwnerIdAfter(
+                    after, limit, itemOwnerId, State.fromString(state)));
+        }
+        return ResponseEntity.ok(bookingService.findAllByItemOwnerId(
+                from, limit, itemOwnerId, State.fromString(state)));
+    }
+
+    @GetMapping("counts")
+    public BookingStateCounts getCountsByUserId(@RequestHeader(value = OWNER_ID_HEADER) Long bookerId) {
+        log.info("Received GET {}/counts request, bookerId = {}.", BOOKING_PATH, bookerId);
+        return bookingService.countByBookerId(bookerId);
+    }
+
+    @GetMapping("owner/counts")
+    public BookingStateCounts getCountsByOwnerId(@RequestHeader(value = OWNER_ID_HEADER) Long itemOwnerId) {
+        log.info("Received GET {}/owner/counts request, itemOwnerId = {}.", BOOKING_PATH, itemOwnerId);
+        return bookingService.countByItemOwnerId(itemOwnerId);
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportByUserId(
+            @RequestHeader(value = OWNER_ID_HEADER) Long bookerId) {
+        log.info("Received GET {}/export request, bookerId = {}.", BOOKING_PATH, bookerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookingService.exportByBookerId(bookerId, out));
+    }
+
+    @GetMapping("owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwnerId(
+            @RequestHeader(value = OWNER_ID_HEADER) Long itemOwnerId) {
+        log.info("Received GET {}/owner/export request, itemOwnerId = {}.", BOOKING_PATH, itemOwnerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookingService.exportByItemOwnerId(itemOwnerId, out));
     }
 
     @GetMapping("{id}")
@@ -78,4 +126,13 @@ public class BookingController {
                 BOOKING_PATH, bookingId, itemOwnerId, approved);
         return bookingService.patch(bookingId, itemOwnerId, approved);
     }
+
+    @PatchMapping
+    public List<BookingDecisionResult> patchAll(
+            @RequestBody BookingDecisionBatchDtoIn dtoIn,
+            @RequestHeader(value = OWNER_ID_HEADER) Long itemOwnerId) {
+        log.info("Received PATCH {} request, decisions = {}, itemOwnerId = {}.",
+                BOOKING_PATH, dtoIn.getDecisions().size(), itemOwnerId);
+        return bookingService.patchAll(dtoIn.getDecisions(), itemOwnerId);
+    }
 }
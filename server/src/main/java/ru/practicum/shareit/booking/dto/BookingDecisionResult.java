@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.abstraction.model.DtoOut;
+import ru.practicum.shareit.booking.model.Status;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionResult implements DtoOut {
+
+    private Long bookingId;
+    private boolean applied;
+    private Status status;
+    private String error;
+
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.abstraction.model.DtoOut;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStateCounts implements DtoOut {
+
+    private long all;
+    private long current;
+    private long future;
+    private long past;
+    private long waiting;
+    private long rejected;
+
+}
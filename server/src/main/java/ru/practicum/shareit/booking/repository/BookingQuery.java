@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.state.searcher.SearchByState;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingQuery {
+
+    private BookingRole role;
+    private Long userId;
+    private SearchByState state;
+    private LocalDateTime now;
+    private int offset;
+    private int limit;
+    private LocalDateTime afterStart;
+    private Long afterId;
+
+}
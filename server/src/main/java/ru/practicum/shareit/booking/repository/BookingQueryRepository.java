@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    List<Booking> findAll(BookingQuery query);
+
+}
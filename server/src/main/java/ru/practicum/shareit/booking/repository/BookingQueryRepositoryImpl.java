@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Booking> findAll(BookingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> criteria = cb.createQuery(Booking.class);
+        Root<Booking> booking = criteria.from(Booking.class);
+        booking.fetch("booker");
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+
+        ParameterExpression<Long> userId = cb.parameter(Long.class, "userId");
+        ParameterExpression<LocalDateTime> now = cb.parameter(LocalDateTime.class, "now");
+        ParameterExpression<LocalDateTime> afterStart = cb.parameter(LocalDateTime.class, "afterStart");
+        ParameterExpression<Long> afterId = cb.parameter(Long.class, "afterId");
+        boolean hasCursor = query.getAfterStart() != null && query.getAfterId() != null;
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(query.getRole() == BookingRole.BOOKER
+                ? cb.equal(booking.get("booker").get("id"), userId)
+                : cb.equal(item.get("owner").get("id"), userId));
+        predicates.add(query.getState().predicate(cb, booking, now));
+        if (hasCursor) {
+            predicates.add(cb.or(
+                    cb.lessThan(booking.get("start"), afterStart),
+                    cb.and(cb.equal(booking.get("start"), afterStart), cb.lessThan(booking.get("id"), afterId))));
+        }
+        criteria.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+
+        TypedQuery<Booking> typedQuery = entityManager.createQuery(criteria)
+                .setParameter(userId, query.getUserId())
+                .setFirstResult(query.getOffset())
+                .setMaxResults(query.getLimit());
+        if (criteria.getParameters().contains(now)) {
+            typedQuery.setParameter(now, query.getNow());
+        }
+        if (hasCursor) {
+            typedQuery.setParameter(afterStart, query.getAfterStart())
+                    .setParameter(afterId, query.getAfterId());
+        }
+        return typedQuery.getResultList();
+    }
+}
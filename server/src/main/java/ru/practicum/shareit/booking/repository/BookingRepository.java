@@ -1,24 +1,42 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
     String bookingJql = "select b from Booking b " +
             "JOIN FETCH b.booker " +
             "JOIN FETCH b.item ";
 
+    String stateCountsJql = "select new ru.practicum.shareit.booking.dto.BookingStateCounts(" +
+            "count(b.id), " +
+            "coalesce(sum(case when b.start <= ?2 and b.end >= ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = 'WAITING' then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = 'REJECTED' then 1 else 0 end), 0)) " +
+            "from Booking b ";
+
     @Query(bookingJql + "where b.id = ?1")
     Optional<Booking> findByIdWithBookerAndItem(Long bookingId);
 
@@ -36,69 +54,63 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and (b.booker.id = ?2 OR b.item.owner.id = ?2)")
     boolean existsByBookingIdAndBookerOrItemOwnerId(Long bookingId, Long userId);
 
-    boolean existsByIdAndItemOwnerId(Long bookingId, Long itemOwnerId);
-
-    boolean existsByIdAndStatus(Long bookingId, Status status);
-
-    boolean existsByIdAndBookerId(Long bookingId, Long bookerId);
-
-    @EntityGraph(attributePaths = {"item", "item.owner"})
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1")
-    Page<Booking> findAllByItemOwnerId(Long itemOwnerId, Pageable pageable);
-
-    @EntityGraph(attributePaths = {"item", "booker"})
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 ")
-    Page<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+    @Query("select case when (count(b) > 0) then true else false end " +
+            "from Booking b " +
+            "where b.item.id = ?1 " +
+            "and b.status in ('APPROVED', 'WAITING') " +
+            "and b.start < ?3 " +
+            "and b.end > ?2 " +
+            "and (?4 is null or b.id <> ?4)")
+    boolean existsOverlappingBooking(Long itemId, LocalDateTime start, LocalDateTime end, Long excludedBookingId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b.start as start, b.end as end " +
+            "from Booking b " +
+            "where b.item.id = ?1 " +
+            "and b.status in ('APPROVED', 'WAITING') " +
+            "and b.start <= ?3 " +
+            "and b.end >= ?2 " +
+            "order by b.start")
+    Stream<BookingPeriod> streamBusyPeriodsByItemId(Long itemId, LocalDateTime from, LocalDateTime to);
 
-    @EntityGraph(attributePaths = {"item", "item.owner"})
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and b.start > CURRENT_TIMESTAMP")
-    Page<Booking> findAllByItemOwnerIdWhereStartInFuture(Long itemOwnerId, Pageable pageable);
+    boolean existsByIdAndItemOwnerId(Long bookingId, Long itemOwnerId);
 
-    @EntityGraph(attributePaths = {"item", "item.owner"})
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and b.end < CURRENT_TIMESTAMP")
-    Page<Booking> findAllByItemOwnerIdWhereEndInPast(Long itemOwnerId, Pageable pageable);
+            "where b.id in ?1 " +
+            "and b.item.owner.id = ?2")
+    List<Booking> findAllByIdInAndItemOwnerIdForUpdate(Collection<Long> bookingIds, Long itemOwnerId);
 
-    @EntityGraph(attributePaths = {"item", "item.owner"})
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and CURRENT_TIMESTAMP between b.start and b.end")
-    Page<Booking> findAllByItemOwnerIdWithTimestampsBetweenStartAndEnd(Long itemOwnerId, Pageable pageable);
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3 " +
+            "where b.id = ?1 " +
+            "and b.status = 'WAITING' " +
+            "and b.item.id in (select it.id from Item it where it.owner.id = ?2)")
+    int updateStatusIfWaiting(Long bookingId, Long itemOwnerId, Status status);
 
-    @EntityGraph(attributePaths = {"item", "booker"})
-    @Query("select b from Booking b " +
-            "where b.start > CURRENT_TIMESTAMP " +
-            "and b.booker.id = ?1 ")
-    Page<Booking> findAllByBookerIdWhereStartInFuture(Long bookerId, Pageable pageable);
+    boolean existsByIdAndBookerId(Long bookingId, Long bookerId);
 
-    @EntityGraph(attributePaths = {"item", "booker"})
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.end < CURRENT_TIMESTAMP")
-    Page<Booking> findAllByBookerIdWhereEndInPast(Long bookerId, Pageable pageable);
+    @Query(stateCountsJql + "where b.booker.id = ?1")
+    BookingStateCounts countStatesByBookerId(Long bookerId, LocalDateTime now);
 
-    @EntityGraph(attributePaths = {"item", "booker"})
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and CURRENT_TIMESTAMP between b.start and b.end")
-    Page<Booking> findAllByBookerIdWithTimestampsBetweenStartAndEnd(Long bookerId, Pageable pageable);
+    @Query(stateCountsJql + "where b.item.owner.id = ?1")
+    BookingStateCounts countStatesByItemOwnerId(Long itemOwnerId, LocalDateTime now);
 
-    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
     @Query("select b from Booking b " +
+            "JOIN FETCH b.booker " +
+            "JOIN FETCH b.item " +
             "where b.booker.id = ?1 " +
-            "and b.status = ?2")
-    Page<Booking> findBookingsByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
+            "order by b.start, b.id")
+    Stream<Booking> streamAllByBookerId(Long bookerId);
 
-    @EntityGraph(attributePaths = {"item", "item.owner"})
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
     @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and b.status = ?2")
-    Page<Booking> findBookingsByItemOwnerIdAndStatus(Long itemOwnerId, Status status, Pageable pageable);
+            "JOIN FETCH b.booker " +
+            "JOIN FETCH b.item it " +
+            "where it.owner.id = ?1 " +
+            "order by b.start, b.id")
+    Stream<Booking> streamAllByItemOwnerId(Long itemOwnerId);
 
     Optional<BookingShort> findTopByItemIdAndStatusAndStartBeforeOrderByStartDesc(
             Long itemId, Status status, LocalDateTime time);
@@ -111,24 +123,24 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                     "from booking b " +
                     "join (select item_id, MAX(start_time) max " +
                     "from booking " +
-                    "where item_id in (select id from item " +
-                    "where item.owner_id = ?1) " +
+                    "where item_id in (?1) " +
                     "and status = 'APPROVED' " +
                     "and start_time <= CURRENT_TIMESTAMP " +
                     "group by item_id) as l on b.item_id = l.item_id " +
-                    "and b.start_time = l.max")
-    List<BookingShort> findLastBookingsByItemOwnerId(Long itemOwnerId);
+                    "and b.start_time = l.max " +
+                    "where b.status = 'APPROVED'")
+    List<BookingShort> findLastBookingsByItemIdIn(Collection<Long> itemIds);
 
     @Query(nativeQuery = true,
             value = "select b.id as id, b.booker_id as bookerId, b.item_id as itemId " +
                     "from booking b " +
                     "join (select item_id, MIN(start_time) min " +
                     "from booking " +
-                    "where item_id in (select id from item " +
-                    "where item.owner_id = ?1) " +
+                    "where item_id in (?1) " +
                     "and status = 'APPROVED' " +
                     "and start_time >= CURRENT_TIMESTAMP " +
                     "group by item_id) as n on b.item_id = n.item_id " +
-                    "and b.start_time = n.min")
-    List<BookingShort> findNextBookingsByItemOwnerId(Long itemOwnerId);
+                    "and b.start_time = n.min " +
+                    "where b.status = 'APPROVED'")
+    List<BookingShort> findNextBookingsByItemIdIn(Collection<Long> itemIds);
 }
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingDecisionDtoIn;
 import ru.practicum.shareit.booking.BookingDtoIn;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.util.pager.CursorPage;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BookingService {
@@ -16,8 +21,22 @@ public interface BookingService {
 
     BookingDtoOut patch(Long bookingId, Long itemOwnerId, boolean approved);
 
+    List<BookingDecisionResult> patchAll(List<BookingDecisionDtoIn> decisions, Long itemOwnerId);
+
     List<BookingDtoOut> findAllByBookerId(Integer from, Integer limit, Long bookerId, State state);
 
     List<BookingDtoOut> findAllByItemOwnerId(Integer from, Integer limit, Long ownerId, State state);
 
+    BookingStateCounts countByBookerId(Long bookerId);
+
+    BookingStateCounts countByItemOwnerId(Long ownerId);
+
+    void exportByBookerId(Long bookerId, OutputStream out);
+
+    void exportByItemOwnerId(Long ownerId, OutputStream out);
+
+    CursorPage<BookingDtoOut> findAllByBookerIdAfter(String after, Integer limit, Long bookerId, State state);
+
+    CursorPage<BookingDtoOut> findAllByItemOwnerIdAfter(String after, Integer limit, Long ownerId, State state);
+
 }
@@ -4,16 +4,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.abstraction.service.AbstractService;
+import ru.practicum.shareit.booking.BookingDecisionDtoIn;
 import ru.practicum.shareit.booking.BookingDtoIn;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
 import ru.practicum.shareit.booking.state.searcher.SearchByStateFactory;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.booking.BookingAlreadyApprovedException;
+import ru.practicum.shareit.exceptions.booking.BookingDecisionLimitException;
+import ru.practicum.shareit.exceptions.booking.BookingOverlapException;
 import ru.practicum.shareit.exceptions.item.ItemNotAvailableException;
 import ru.practicum.shareit.exceptions.user.ObjectOwnerException;
 import ru.practicum.shareit.exceptions.user.UserNotFoundException;
@@ -22,17 +29,36 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pager.Cursor;
+import ru.practicum.shareit.util.pager.CursorPage;
 import ru.practicum.shareit.util.pager.PageRequester;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static ru.practicum.shareit.util.UtilConstants.BOOKING_DECISIONS_MAX;
 import static ru.practicum.shareit.util.UtilConstants.BOOKING_SORT;
 
 @Service
 @Transactional
 public class BookingServiceImpl extends AbstractService<BookingDtoIn, BookingDtoOut, Booking>
         implements BookingService {
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
     private final BookingMapper bookingMapper;
     private final ItemMapper itemMapper;
     private final BookingRepository repository;
@@ -47,8 +73,11 @@ public class BookingServiceImpl extends AbstractService<BookingDtoIn, BookingDto
                               UserRepository userRepository,
                               SearchByStateFactory searchByStateFactory,
                               BookingMapper bookingMapper,
-                              ItemMapper itemMapper) {
+                              ItemMapper itemMapper,
+                              EntityManager entityManager) {
         super(objectMapper);
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
         this.bookingMapper = bookingMapper;
         this.itemMapper = itemMapper;
         this.repository = repository;
@@ -68,16 +97,80 @@ public class BookingServiceImpl extends AbstractService<BookingDtoIn, BookingDto
     @Transactional(readOnly = true)
     public List<BookingDtoOut> findAllByItemOwnerId(Integer from, Integer limit, Long ownerId, State state) {
         checkUserId(ownerId);
-        return toDto(searchByStateFactory.searchByState(state)
-                .findAllByItemOwnerId(ownerId, new PageRequester(from, limit, BOOKING_SORT)));
+        return toDto(repository.findAll(bookingQuery(BookingRole.ITEM_OWNER, ownerId, state)
+                .offset((int) new PageRequester(from, limit, BOOKING_SORT).getOffset())
+                .limit(limit)
+                .build()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDtoOut> findAllByBookerId(Integer from, Integer limit, Long bookerId, State state) {
         checkUserId(bookerId);
-        return toDto(searchByStateFactory.searchByState(state)
-                .findAllByBookerId(bookerId, new PageRequester(from, limit, BOOKING_SORT)));
+        return toDto(repository.findAll(bookingQuery(BookingRole.BOOKER, bookerId, state)
+                .offset((int) new PageRequester(from, limit, BOOKING_SORT).getOffset())
+                .limit(limit)
+                .build()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingStateCounts countByBookerId(Long bookerId) {
+        checkUserId(bookerId);
+        return repository.countStatesByBookerId(bookerId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingStateCounts countByItemOwnerId(Long ownerId) {
+        checkUserId(ownerId);
+        return repository.countStatesByItemOwnerId(ownerId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByBookerId(Long bookerId, OutputStream out) {
+        checkUserId(bookerId);
+        try (Stream<Booking> bookings = repository.streamAllByBookerId(bookerId)) {
+            writeNdjson(bookings, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByItemOwnerId(Long ownerId, OutputStream out) {
+        checkUserId(ownerId);
+        try (Stream<Booking> bookings = repository.streamAllByItemOwnerId(ownerId)) {
+            writeNdjson(bookings, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDtoOut> findAllByItemOwnerIdAfter(String after, Integer limit, Long ownerId,
+                                                               State state) {
+        checkUserId(ownerId);
+        Cursor cursor = Cursor.decode(after, 2);
+        List<Booking> bookings = repository.findAll(bookingQuery(BookingRole.ITEM_OWNER, ownerId, state)
+                .afterStart(cursor.getDateTime(0))
+                .afterId(cursor.getLong(1))
+                .limit(limit + 1)
+                .build());
+        return CursorPage.of(bookings, limit, this::cursorOf, this::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDtoOut> findAllByBookerIdAfter(String after, Integer limit, Long bookerId,
+                                                            State state) {
+        checkUserId(bookerId);
+        Cursor cursor = Cursor.decode(after, 2);
+        List<Booking> bookings = repository.findAll(bookingQuery(BookingRole.BOOKER, bookerId, state)
+                .afterStart(cursor.getDateTime(0))
+                .afterId(cursor.getLong(1))
+                .limit(limit + 1)
+                .build());
+        return CursorPage.of(bookings, limit, this::cursorOf, this::toDto);
     }
 
     @Override
@@ -97,21 +190,101 @@ public class BookingServiceImpl extends AbstractService<BookingDtoIn, BookingDto
 
     @Override
     public BookingDtoOut patch(Long bookingId, Long itemOwnerId, boolean approved) {
-        checkItemOwnerAccess(bookingId, itemOwnerId);
-        checkBookingStatus(bookingId);
-        Booking booking = repository.findByIdWithBookerAndItem(bookingId)
-                .orElseThrow(() -> new EntityNotFoundException(bookingId, "Booking"));
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (repository.updateStatusIfWaiting(bookingId, itemOwnerId, status) == 0) {
+            checkItemOwnerAccess(bookingId, itemOwnerId);
+            throw new BookingAlreadyApprovedException("Error! Booking id: " + bookingId + " is already approved.");
+        }
+        return toDto(repository.findByIdWithBookerAndItem(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException(bookingId, "Booking")));
+    }
+
+    @Override
+    public List<BookingDecisionResult> patchAll(List<BookingDecisionDtoIn> decisions, Long itemOwnerId) {
+        if (decisions.size() > BOOKING_DECISIONS_MAX) {
+            throw new BookingDecisionLimitException(decisions.size(), BOOKING_DECISIONS_MAX);
         }
-        return toDto(repository.save(booking));
+        checkUserId(itemOwnerId);
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDtoIn::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = repository.findAllByIdInAndItemOwnerIdForUpdate(bookingIds, itemOwnerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Set<Long> decided = new HashSet<>();
+        List<BookingDecisionResult> results = new ArrayList<>(decisions.size());
+        for (BookingDecisionDtoIn decision : decisions) {
+            results.add(decide(decision, bookings.get(decision.getBookingId()), itemOwnerId,
+                    decided.add(decision.getBookingId())));
+        }
+        return results;
+    }
+
+    private BookingDecisionResult decide(BookingDecisionDtoIn decision, Booking booking, Long itemOwnerId,
+                                         boolean first) {
+        Long bookingId = decision.getBookingId();
+        if (!first) {
+            return rejectedDecision(bookingId, null, "Error! Duplicate decision for booking id: " + bookingId + ".");
+        }
+        if (booking == null) {
+            return rejectedDecision(bookingId, null, "Error! User id:" + itemOwnerId +
+                    " is not Item owner of booking id: " + bookingId + ".");
+        }
+        if (booking.getStatus() != Status.WAITING) {
+            return rejectedDecision(bookingId, booking.getStatus(),
+                    "Error! Booking id: " + bookingId + " is already approved.");
+        }
+        booking.setStatus(decision.getApproved() ? Status.APPROVED : Status.REJECTED);
+        return BookingDecisionResult.builder()
+                .bookingId(bookingId)
+                .applied(true)
+                .status(booking.getStatus())
+                .build();
+    }
+
+    private BookingDecisionResult rejectedDecision(Long bookingId, Status status, String error) {
+        return BookingDecisionResult.builder()
+                .bookingId(bookingId)
+                .applied(false)
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    private void writeNdjson(Stream<Booking> bookings, OutputStream out) {
+        int written = 0;
+        try {
+            for (Iterator<Booking> iterator = bookings.iterator(); iterator.hasNext(); ) {
+                out.write(objectMapper.writeValueAsBytes(toDto(iterator.next())));
+                out.write('\n');
+                if (++written % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BookingQuery.BookingQueryBuilder bookingQuery(BookingRole role, Long userId, State state) {
+        return BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(searchByStateFactory.searchByState(state))
+                .now(LocalDateTime.now());
+    }
+
+    private String cursorOf(Booking booking) {
+        return Cursor.encode(booking.getStart(), booking.getId());
     }
 
     private Booking mergeToBookingWithStatusWaiting(BookingDtoIn dtoIn, Long bookerId) {
         User booker = userRepository.findById(bookerId)
                 .orElseThrow(() -> new UserNotFoundException(bookerId));
+        itemRepository.lockById(dtoIn.getItemId())
+                .orElseThrow(() -> new EntityNotFoundException(dtoIn.getItemId(), "Item"));
+        checkBookingPeriodIsFree(dtoIn);
         Item item = itemRepository.findById(dtoIn.getItemId())
                 .orElseThrow(() -> new EntityNotFoundException(dtoIn.getItemId(), "Item"));
         Booking booking = toEntity(dtoIn);
@@ -153,15 +326,16 @@ public class BookingServiceImpl extends AbstractService<BookingDtoIn, BookingDto
         }
     }
 
-    private void checkBookingAccess(Long bookingId, Long userId) {
-        if (!repository.existsByBookingIdAndBookerOrItemOwnerId(bookingId, userId)) {
-            throw new ObjectOwnerException(userId, "booking or item");
+    private void checkBookingPeriodIsFree(BookingDtoIn dtoIn) {
+        if (repository.existsOverlappingBooking(dtoIn.getItemId(), dtoIn.getStart(), dtoIn.getEnd(), dtoIn.getId())) {
+            throw new BookingOverlapException("Error! Item id: " + dtoIn.getItemId() +
+                    " is already booked between " + dtoIn.getStart() + " and " + dtoIn.getEnd() + ".");
         }
     }
 
-    private void checkBookingStatus(Long bookingId) {
-        if (!repository.existsByIdAndStatus(bookingId, Status.WAITING)) {
-            throw new BookingAlreadyApprovedException("Error! Booking id: " + bookingId + " is already approved.");
+    private void checkBookingAccess(Long bookingId, Long userId) {
+        if (!repository.existsByBookingIdAndBookerOrItemOwnerId(bookingId, userId)) {
+            throw new ObjectOwnerException(userId, "booking or item");
         }
     }
 
@@ -1,26 +1,19 @@
 package ru.practicum.shareit.booking.state.searcher;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
 
-import java.util.List;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
 
 @Component
-@RequiredArgsConstructor
 public class Current implements SearchByState {
 
-    private final BookingRepository bookingRepository;
-
-    @Override
-    public List<Booking> findAllByItemOwnerId(Long itemOwnerId, Pageable pageable) {
-        return bookingRepository.findAllByItemOwnerIdWithTimestampsBetweenStartAndEnd(itemOwnerId, pageable).toList();
-    }
-
     @Override
-    public List<Booking> findAllByBookerId(Long bookerId, Pageable pageable) {
-        return bookingRepository.findAllByBookerIdWithTimestampsBetweenStartAndEnd(bookerId, pageable).toList();
+    public Predicate predicate(CriteriaBuilder cb, Root<Booking> booking, Expression<LocalDateTime> now) {
+        return cb.between(now, booking.<LocalDateTime>get("start"), booking.<LocalDateTime>get("end"));
     }
 }
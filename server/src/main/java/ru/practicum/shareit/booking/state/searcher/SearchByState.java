@@ -1,14 +1,15 @@
 package ru.practicum.shareit.booking.state.searcher;
 
-import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.model.Booking;
 
-import java.util.List;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
 
 public interface SearchByState {
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Pageable pageable);
-
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+    Predicate predicate(CriteriaBuilder cb, Root<Booking> booking, Expression<LocalDateTime> now);
 
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions;
+
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String cursor) {
+        super("Error! Invalid page cursor: " + cursor);
+    }
+}
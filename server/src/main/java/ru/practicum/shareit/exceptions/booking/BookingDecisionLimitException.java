@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions.booking;
+
+public class BookingDecisionLimitException extends IllegalArgumentException {
+
+    public BookingDecisionLimitException(int decisions, int limit) {
+        super("Error! Batch holds " + decisions + " decisions, at most " + limit + " are allowed.");
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exceptions.handler;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,14 +15,18 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.JsonUpdateFieldsException;
 import ru.practicum.shareit.exceptions.booking.BookingAlreadyApprovedException;
+import ru.practicum.shareit.exceptions.booking.BookingDecisionLimitException;
+import ru.practicum.shareit.exceptions.booking.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.RentTimeConstraintException;
 import ru.practicum.shareit.booking.exception.UnknownStateException;
+import ru.practicum.shareit.item.exception.AvailabilityWindowException;
 import ru.practicum.shareit.exceptions.item.ItemNotAvailableException;
 import ru.practicum.shareit.exceptions.item.UnregisteredBookingException;
 import ru.practicum.shareit.exceptions.user.EmailAlreadyRegisteredException;
 import ru.practicum.shareit.exceptions.user.ObjectOwnerException;
 import ru.practicum.shareit.exceptions.user.UserNotFoundException;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -30,9 +35,12 @@ import java.util.Map;
 @RestControllerAdvice
 public class ErrorHandler extends ResponseEntityExceptionHandler {
 
+    private static final String EXCLUSION_VIOLATION_STATE = "23P01";
+
     @ExceptionHandler({
             JsonUpdateFieldsException.class,
-            EmailAlreadyRegisteredException.class
+            EmailAlreadyRegisteredException.class,
+            BookingOverlapException.class
     })
     @ResponseStatus(HttpStatus.CONFLICT)
     public ResponseEntity<Object> handleEntityExistException(
@@ -43,6 +51,16 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
                 HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(value = DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolation(
+            DataIntegrityViolationException e, WebRequest request) {
+        if (isExclusionViolation(e)) {
+            return handleEntityExistException(
+                    new BookingOverlapException("Error! Item is already booked for an overlapping period."), request);
+        }
+        return handleThrowable(e, request);
+    }
+
     @ExceptionHandler({
             EntityNotFoundException.class,
             UserNotFoundException.class,
@@ -59,7 +77,9 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({
             BookingAlreadyApprovedException.class,
+            BookingDecisionLimitException.class,
             RentTimeConstraintException.class,
+            AvailabilityWindowException.class,
             UnregisteredBookingException.class,
             ItemNotAvailableException.class,
             IllegalArgumentException.class
@@ -112,6 +132,16 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException
+                    && EXCLUSION_VIOLATION_STATE.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Map<String, Object> responseBody(HttpStatus status, String error, WebRequest request) {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now());
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.util.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ItemViewCache {
+
+    public static final String ITEM_VIEW_CACHE = "itemView";
+
+    private final Cache<Long, CachedView> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemViewCache(@Value("${shareit-server.cache.item-view.max-size:10000}") long maxSize,
+                         @Value("${shareit-server.cache.item-view.ttl:10m}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, ITEM_VIEW_CACHE);
+    }
+
+    public Optional<ItemDtoOut> get(Long itemId, Long userId) {
+        CachedView view = cache.getIfPresent(itemId);
+        if (view == null || Objects.equals(view.ownerId, userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(copy(view.item));
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Long itemId, Long ownerId, ItemDtoOut item, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        cache.put(itemId, new CachedView(ownerId, copy(item)));
+        if (generation.get() != readGeneration) {
+            cache.invalidate(itemId);
+        }
+    }
+
+    public void evictAfterCommit(Long itemId) {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            cache.invalidate(itemId);
+        });
+    }
+
+    public void evictAllAfterCommit() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        });
+    }
+
+    /**
+     * Views are shared between readers, so each caller gets its own copy and cannot change what others read.
+     */
+    private static ItemDtoOut copy(ItemDtoOut item) {
+        return ItemDtoOut.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(copy(item.getLastBooking()))
+                .nextBooking(copy(item.getNextBooking()))
+                .comments(item.getComments() == null ? null : item.getComments().stream()
+                        .map(comment -> new CommentDtoOut(comment.getId(), comment.getText(),
+                                comment.getAuthorName(), comment.getCreated()))
+                        .collect(Collectors.toList()))
+                .requestId(item.getRequestId())
+                .build();
+    }
+
+    private static BookingDtoShort copy(BookingDtoShort booking) {
+        return booking == null ? null : new BookingDtoShort(booking.getId(), booking.getBookerId());
+    }
+
+    private static class CachedView {
+
+        private final Long ownerId;
+        private final ItemDtoOut item;
+
+        private CachedView(Long ownerId, ItemDtoOut item) {
+            this.ownerId = ownerId;
+            this.item = item;
+        }
+    }
+}
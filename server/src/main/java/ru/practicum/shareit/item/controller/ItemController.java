@@ -2,13 +2,18 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.CommentDtoIn;
 import ru.practicum.shareit.item.ItemDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.pager.CursorResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -23,23 +28,31 @@ public class ItemController {
     private final ItemService itemService;
 
     @GetMapping
-    public List<ItemDtoOut> getAllByOwnerId(
+    public ResponseEntity<List<ItemDtoOut>> getAllByOwnerId(
             @RequestParam(defaultValue = DEFAULT_FROM) Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) Integer limit,
-            @RequestHeader(value = OWNER_ID_HEADER) Long ownerId) {
-        log.info("Received GET {} request, from = {}, limit = {}, ownerId = {}.",
-                ITEM_PATH, from, limit, ownerId);
-        return itemService.findAllByOwnerId(from, limit, ownerId);
+            @RequestHeader(value = OWNER_ID_HEADER) Long ownerId,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {} request, from = {}, limit = {}, ownerId = {}, after = {}.",
+                ITEM_PATH, from, limit, ownerId, after);
+        if (after != null) {
+            return CursorResponse.of(itemService.findAllByOwnerIdAfter(after, limit, ownerId));
+        }
+        return ResponseEntity.ok(itemService.findAllByOwnerId(from, limit, ownerId));
     }
 
     @GetMapping("search")
-    public List<ItemDtoOut> searchByNameOrDescription(
+    public ResponseEntity<List<ItemDtoOut>> searchByNameOrDescription(
             @RequestParam(defaultValue = DEFAULT_FROM) Integer from,
             @RequestParam(value = "size", defaultValue = DEFAULT_LIMIT) Integer limit,
-            @RequestParam String text) {
-        log.info("Received GET {}/search request, from = {}, limit = {}, text = {}.",
-                ITEM_PATH, from, limit, text);
-        return itemService.searchByNameOrDescription(from, limit, text);
+            @RequestParam String text,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {}/search request, from = {}, limit = {}, text = {}, after = {}.",
+                ITEM_PATH, from, limit, text, after);
+        if (after != null) {
+            return CursorResponse.of(itemService.searchByNameOrDescriptionAfter(after, limit, text));
+        }
+        return ResponseEntity.ok(itemService.searchByNameOrDescription(from, limit, text));
     }
 
     @GetMapping("{id}")
@@ -51,6 +64,17 @@ public class ItemController {
         return itemService.findById(itemId, ownerId);
     }
 
+    @GetMapping("{id}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable("id") Long itemId,
+            @RequestHeader(value = OWNER_ID_HEADER) Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Received GET {}/{}/availability request, userId = {}, from = {}, to = {}.",
+                ITEM_PATH, itemId, userId, from, to);
+        return itemService.findAvailability(itemId, userId, from, to);
+    }
+
     @PostMapping
     public ItemDtoOut post(
             @RequestBody ItemDtoIn dtoIn,
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndexStatus;
+
+import static ru.practicum.shareit.util.UtilConstants.ITEM_PATH;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(ITEM_PATH + "/search/index")
+@ConditionalOnProperty(value = "shareit-server.search.index.enabled", havingValue = "true")
+@Slf4j
+public class ItemSearchIndexController {
+
+    private final ItemSearchIndex searchIndex;
+
+    @GetMapping
+    public ItemSearchIndexStatus checkConsistency() {
+        log.info("Received GET {}/search/index request.", ITEM_PATH);
+        return searchIndex.checkConsistency();
+    }
+
+    @PostMapping("rebuild")
+    public ItemSearchIndexStatus rebuild() {
+        log.info("Received POST {}/search/index/rebuild request.", ITEM_PATH);
+        return searchIndex.rebuild();
+    }
+}
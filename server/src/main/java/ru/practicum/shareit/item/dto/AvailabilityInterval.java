@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.abstraction.model.DtoOut;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityInterval implements DtoOut {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+}
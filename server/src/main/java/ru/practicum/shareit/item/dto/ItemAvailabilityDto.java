@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.abstraction.model.DtoOut;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto implements DtoOut {
+
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<AvailabilityInterval> busy;
+    private List<AvailabilityInterval> free;
+
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemDetail {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getOwnerId();
+
+    Boolean getUserExists();
+
+    Boolean getIsOwner();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+
+}
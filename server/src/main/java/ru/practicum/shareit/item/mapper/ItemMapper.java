@@ -2,7 +2,9 @@ package ru.practicum.shareit.item.mapper;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.abstraction.mapper.ModelMapper;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.item.ItemDtoIn;
+import ru.practicum.shareit.item.dto.ItemDetail;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.item.model.Item;
@@ -52,6 +54,22 @@ public class ItemMapper implements ModelMapper<ItemDtoIn, ItemDtoOut, Item> {
                 .build();
     }
 
+    public ItemDtoOut toDto(ItemDetail detail) {
+        if (detail == null) {
+            return null;
+        }
+
+        return ItemDtoOut.builder()
+                .requestId(detail.getRequestId())
+                .id(detail.getId())
+                .name(detail.getName())
+                .description(detail.getDescription())
+                .available(detail.getAvailable())
+                .lastBooking(bookingDtoShort(detail.getLastBookingId(), detail.getLastBookerId()))
+                .nextBooking(bookingDtoShort(detail.getNextBookingId(), detail.getNextBookerId()))
+                .build();
+    }
+
     public ItemDtoShort toDtoShort(Item item) {
         if (item == null) {
             return null;
@@ -92,6 +110,16 @@ public class ItemMapper implements ModelMapper<ItemDtoIn, ItemDtoOut, Item> {
         return id;
     }
 
+    private BookingDtoShort bookingDtoShort(Long bookingId, Long bookerId) {
+        if (bookingId == null) {
+            return null;
+        }
+        return BookingDtoShort.builder()
+                .id(bookingId)
+                .bookerId(bookerId)
+                .build();
+    }
+
     private Long itemOwnerId(Item item) {
         if (item == null) {
             return null;
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.DomainEvents;
 import ru.practicum.shareit.abstraction.model.EntityClass;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
+import java.util.Collection;
 import java.util.List;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,14 +35,20 @@ public class Item implements EntityClass {
     @EqualsAndHashCode.Exclude
     private User owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Request request;
 
     @OneToMany
+    @BatchSize(size = 100)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Comment> comments;
 
+    @DomainEvents
+    Collection<ItemSearchDocument> searchDocuments() {
+        return List.of(new ItemSearchDocument(id, name, description, available));
+    }
+
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+
+@Value
+public class ItemSearchDocument {
+
+    Long itemId;
+    String name;
+    String description;
+    Boolean available;
+
+}
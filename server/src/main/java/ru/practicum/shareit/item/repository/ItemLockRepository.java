@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.Optional;
+
+public interface ItemLockRepository {
+
+    Optional<Long> lockById(Long itemId);
+
+}
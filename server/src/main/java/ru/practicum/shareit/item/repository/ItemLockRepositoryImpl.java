@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.Optional;
+
+public class ItemLockRepositoryImpl implements ItemLockRepository {
+
+    /**
+     * Booking serialization only needs the item row to be exclusive against other bookings, so on Postgres
+     * the weaker lock is taken: it still conflicts with itself but lets comment and request inserts take
+     * their key share lock on the referenced item.
+     */
+    private static final String POSTGRES_LOCK = "select it.id from item it where it.id = ?1 for no key update";
+    private static final String PORTABLE_LOCK = "select it.id from item it where it.id = ?1 for update";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private volatile String lockQuery;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Long> lockById(Long itemId) {
+        List<Number> ids = entityManager.createNativeQuery(lockQuery())
+                .setParameter(1, itemId)
+                .getResultList();
+        return ids.stream().findFirst().map(Number::longValue);
+    }
+
+    private String lockQuery() {
+        if (lockQuery == null) {
+            String product = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            lockQuery = "PostgreSQL".equals(product) ? POSTGRES_LOCK : PORTABLE_LOCK;
+        }
+        return lockQuery;
+    }
+}
@@ -2,17 +2,45 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemDetail;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchDocument;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
-    Page<Item> findAllByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailableIsTrue(
-            String name, String description, Pageable pageable);
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemLockRepository {
+
+    @Query(value = "select it from Item it " +
+            "where it.available = true " +
+            "and (lower(it.name) like lower(concat('%', ?1, '%')) escape '\\' " +
+            "or lower(it.description) like lower(concat('%', ?1, '%')) escape '\\') " +
+            "order by case when lower(it.name) like lower(concat('%', ?1, '%')) escape '\\' then 0 else 1 end, it.id",
+            countQuery = "select count(it) from Item it " +
+                    "where it.available = true " +
+                    "and (lower(it.name) like lower(concat('%', ?1, '%')) escape '\\' " +
+                    "or lower(it.description) like lower(concat('%', ?1, '%')) escape '\\')")
+    Page<Item> searchAvailableByText(String text, Pageable pageable);
+
+    @Query("select it from Item it " +
+            "where it.available = true " +
+            "and (lower(it.name) like lower(concat('%', ?1, '%')) escape '\\' " +
+            "or lower(it.description) like lower(concat('%', ?1, '%')) escape '\\') " +
+            "and (case when lower(it.name) like lower(concat('%', ?1, '%')) escape '\\' then 0 else 1 end > ?2 " +
+            "or (case when lower(it.name) like lower(concat('%', ?1, '%')) escape '\\' then 0 else 1 end = ?2 " +
+            "and it.id > ?3)) " +
+            "order by case when lower(it.name) like lower(concat('%', ?1, '%')) escape '\\' then 0 else 1 end, it.id")
+    List<Item> searchAvailableByTextAfter(String text, Integer afterRank, Long afterId, Pageable pageable);
 
     @Query("select it from Item it " +
             "JOIN FETCH it.owner " +
@@ -25,13 +53,63 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "where it.id = ?1")
     Optional<Item> findByIdWithOwnerAndComments(Long itemId);
 
-    @EntityGraph(attributePaths = {"comments"})
-    @Query("select it from Item it " +
+    @Query(nativeQuery = true,
+            value = "select it.id as id, it.name as name, it.description as description, " +
+                    "it.available as available, it.request_id as requestId, it.owner_id as ownerId, " +
+                    "case when exists (select 1 from users u where u.id = ?2) then true else false end as userExists, " +
+                    "case when it.owner_id = ?2 then true else false end as isOwner, " +
+                    "l.id as lastBookingId, l.booker_id as lastBookerId, " +
+                    "n.id as nextBookingId, n.booker_id as nextBookerId " +
+                    "from item it " +
+                    "left join booking l on l.id = (select b.id from booking b " +
+                    "where b.item_id = it.id and it.owner_id = ?2 " +
+                    "and b.status = 'APPROVED' and b.start_time < ?3 " +
+                    "order by b.start_time desc limit 1) " +
+                    "left join booking n on n.id = (select b.id from booking b " +
+                    "where b.item_id = it.id and it.owner_id = ?2 " +
+                    "and b.status = 'APPROVED' and b.start_time > ?3 " +
+                    "order by b.start_time limit 1) " +
+                    "where it.id = ?1")
+    Optional<ItemDetail> findDetailById(Long itemId, Long userId, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.comment.dto.CommentDtoOut(c.id, c.text, a.name, c.created) " +
+            "from Item it " +
+            "JOIN it.comments c " +
+            "JOIN c.author a " +
+            "where it.id = ?1 " +
+            "order by c.id")
+    List<CommentDtoOut> findCommentDtosByItemId(Long itemId);
+
+    @Query("select it.id from Item it " +
             "where it.owner.id = ?1")
-    Page<Item> findAllByOwnerIdWithComments(Long ownerId, Pageable pageable);
+    Page<Long> findIdsByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query("select it.id from Item it " +
+            "where it.owner.id = ?1 and it.id > ?2 " +
+            "order by it.id")
+    List<Long> findIdsByOwnerIdAfter(Long ownerId, Long afterId, Pageable pageable);
+
+    @Query("select distinct it from Item it " +
+            "LEFT JOIN FETCH it.comments c " +
+            "LEFT JOIN FETCH c.author " +
+            "where it.id in ?1")
+    List<Item> findAllByIdInWithComments(Collection<Long> itemIds);
+
+    @Query("select new ru.practicum.shareit.item.model.ItemSearchDocument(" +
+            "it.id, it.name, it.description, it.available) " +
+            "from Item it " +
+            "where it.available = true and it.id > ?1 " +
+            "order by it.id")
+    List<ItemSearchDocument> findAvailableSearchDocumentsAfter(Long itemId, Pageable pageable);
+
+    @Query("select it.id from Item it " +
+            "where it.available = true")
+    Set<Long> findAllAvailableIds();
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByIdAndOwnerId(Long itemId, Long ownerId);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByIdAndAvailableIsFalse(Long itemId);
 
 }
@@ -0,0 +1,248 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.ItemSearchDocument;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.transaction.AfterCommit;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "shareit-server.search.index.enabled", havingValue = "true")
+public class ItemSearchIndex {
+
+    private static final String TOKEN_SEPARATOR = "[^\\p{L}\\p{Nd}]+";
+
+    private final ItemRepository repository;
+    private final long maxPostings;
+    private final int batchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private long postingCount;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository repository,
+                           @Value("${shareit-server.search.index.max-postings:2000000}") long maxPostings,
+                           @Value("${shareit-server.search.index.batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.maxPostings = maxPostings;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public ItemSearchIndexStatus rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+            long lastId = 0L;
+            List<ItemSearchDocument> batch;
+            do {
+                batch = repository.findAvailableSearchDocumentsAfter(lastId, PageRequest.of(0, batchSize));
+                for (ItemSearchDocument document : batch) {
+                    add(document);
+                    lastId = document.getItemId();
+                }
+                if (postingCount > maxPostings) {
+                    disable();
+                    return status();
+                }
+            } while (batch.size() == batchSize);
+            ready = true;
+            log.info("Item search index built: {} items, {} postings.", documents.size(), postingCount);
+            return status();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            remove(document.getItemId());
+            if (Boolean.TRUE.equals(document.getAvailable())) {
+                add(document);
+            }
+            if (postingCount > maxPostings) {
+                disable();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Items of a deleted owner go away through the database cascade and never reach {@link #onItemSaved},
+     * so their ids are captured while the rows still exist and dropped once the delete commits.
+     */
+    public void removeOwnerItemsAfterCommit(Long ownerId) {
+        List<Long> itemIds = repository.findIdsByOwnerId(ownerId, Pageable.unpaged()).getContent();
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                itemIds.forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Optional<List<Long>> search(String text, int from, int limit) {
+        if (!ready || !lock.readLock().tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            Set<String> queryTokens = tokenize(text);
+            if (queryTokens.isEmpty()) {
+                return Optional.of(List.of());
+            }
+            Set<Long> found = null;
+            for (String token : queryTokens) {
+                Set<Long> matches = prefixMatches(token);
+                if (found == null) {
+                    found = matches;
+                } else {
+                    found.retainAll(matches);
+                }
+                if (found.isEmpty()) {
+                    return Optional.of(List.of());
+                }
+            }
+            return Optional.of(found.stream()
+                    .sorted(Comparator.<Long>comparingInt(id -> documents.get(id).matchesName(queryTokens) ? 0 : 1)
+                            .thenComparing(Comparator.naturalOrder()))
+                    .skip(from)
+                    .limit(limit)
+                    .collect(Collectors.toList()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ItemSearchIndexStatus checkConsistency() {
+        Set<Long> databaseIds = repository.findAllAvailableIds();
+        Set<Long> indexedIds;
+        ItemSearchIndexStatus status;
+        lock.readLock().lock();
+        try {
+            indexedIds = new HashSet<>(documents.keySet());
+            status = status();
+        } finally {
+            lock.readLock().unlock();
+        }
+        long missing = databaseIds.stream().filter(id -> !indexedIds.contains(id)).count();
+        long stale = indexedIds.stream().filter(id -> !databaseIds.contains(id)).count();
+        status.setMissing(missing);
+        status.setStale(stale);
+        status.setConsistent(status.isReady() && missing == 0 && stale == 0);
+        return status;
+    }
+
+    private Set<Long> prefixMatches(String prefix) {
+        Set<Long> matches = new HashSet<>();
+        for (Set<Long> ids : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            matches.addAll(ids);
+        }
+        return matches;
+    }
+
+    private void add(ItemSearchDocument document) {
+        Set<String> nameTokens = tokenize(document.getName());
+        Set<String> tokens = new HashSet<>(nameTokens);
+        tokens.addAll(tokenize(document.getDescription()));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new HashSet<>()).add(document.getItemId());
+        }
+        postingCount += tokens.size();
+        documents.put(document.getItemId(), new IndexedItem(nameTokens, tokens));
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem indexed = documents.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        for (String token : indexed.tokens) {
+            Set<Long> ids = postings.get(token);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+        postingCount -= indexed.tokens.size();
+    }
+
+    private void clear() {
+        postings.clear();
+        documents.clear();
+        postingCount = 0;
+    }
+
+    private void disable() {
+        ready = false;
+        clear();
+        log.warn("Item search index exceeded memory budget of {} postings, falling back to database search.",
+                maxPostings);
+    }
+
+    private ItemSearchIndexStatus status() {
+        return ItemSearchIndexStatus.builder()
+                .ready(ready)
+                .items(documents.size())
+                .postings(postingCount)
+                .maxPostings(maxPostings)
+                .build();
+    }
+
+    private static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split(TOKEN_SEPARATOR))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static class IndexedItem {
+
+        private final Set<String> nameTokens;
+        private final Set<String> tokens;
+
+        private IndexedItem(Set<String> nameTokens, Set<String> tokens) {
+            this.nameTokens = nameTokens;
+            this.tokens = tokens;
+        }
+
+        private boolean matchesName(Set<String> queryTokens) {
+            return queryTokens.stream()
+                    .allMatch(query -> nameTokens.stream().anyMatch(token -> token.startsWith(query)));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ItemSearchIndexStatus {
+
+    private boolean ready;
+    private int items;
+    private long postings;
+    private long maxPostings;
+    private Long missing;
+    private Long stale;
+    private Boolean consistent;
+
+}
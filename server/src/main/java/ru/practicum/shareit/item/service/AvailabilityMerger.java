@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.item.dto.AvailabilityInterval;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+final class AvailabilityMerger {
+
+    private AvailabilityMerger() {
+    }
+
+    static ItemAvailabilityDto merge(Long itemId, LocalDateTime from, LocalDateTime to,
+                                     Iterator<BookingPeriod> periods) {
+        List<AvailabilityInterval> busy = new ArrayList<>();
+        List<AvailabilityInterval> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = null;
+        while (periods.hasNext()) {
+            BookingPeriod period = periods.next();
+            LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+            if (busyEnd != null && !start.isAfter(busyEnd)) {
+                if (end.isAfter(busyEnd)) {
+                    busyEnd = end;
+                }
+                continue;
+            }
+            if (busyEnd != null) {
+                busy.add(interval(busyStart, busyEnd));
+                freeFrom = busyEnd;
+            }
+            if (start.isAfter(freeFrom)) {
+                free.add(interval(freeFrom, start));
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (busyEnd != null) {
+            busy.add(interval(busyStart, busyEnd));
+            freeFrom = busyEnd;
+        }
+        if (to.isAfter(freeFrom)) {
+            free.add(interval(freeFrom, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    private static AvailabilityInterval interval(LocalDateTime start, LocalDateTime end) {
+        return AvailabilityInterval.builder()
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
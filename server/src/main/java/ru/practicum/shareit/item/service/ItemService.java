@@ -2,8 +2,11 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.CommentDtoIn;
 import ru.practicum.shareit.item.ItemDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.util.pager.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +24,12 @@ public interface ItemService {
 
     List<ItemDtoOut> searchByNameOrDescription(Integer from, Integer limit, String text);
 
+    CursorPage<ItemDtoOut> findAllByOwnerIdAfter(String after, Integer limit, Long ownerId);
+
+    CursorPage<ItemDtoOut> searchByNameOrDescriptionAfter(String after, Integer limit, String text);
+
     CommentDtoOut createComment(Long itemId, Long authorId, CommentDtoIn dtoIn);
 
+    ItemAvailabilityDto findAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
 }
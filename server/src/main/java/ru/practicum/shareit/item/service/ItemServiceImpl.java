@@ -1,13 +1,16 @@
 package ru.practicum.shareit.item.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.abstraction.service.AbstractService;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.item.UnregisteredBookingException;
@@ -15,23 +18,32 @@ import ru.practicum.shareit.exceptions.user.ObjectOwnerException;
 import ru.practicum.shareit.exceptions.user.UserNotFoundException;
 import ru.practicum.shareit.item.CommentDtoIn;
 import ru.practicum.shareit.item.ItemDtoIn;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.exception.AvailabilityWindowException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDetail;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pager.Cursor;
+import ru.practicum.shareit.util.pager.CursorPage;
 import ru.practicum.shareit.util.pager.PageRequester;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.util.UtilConstants.ITEM_SORT;
 
@@ -47,6 +59,8 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final BookingMapper bookingMapper;
+    private final ItemSearchIndex searchIndex;
+    private final ItemViewCache viewCache;
 
     public ItemServiceImpl(ItemRepository repository,
                            ObjectMapper objectMapper,
@@ -56,7 +70,9 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
                            RequestRepository requestRepository,
                            ItemMapper itemMapper,
                            CommentMapper commentMapper,
-                           BookingMapper bookingMapper) {
+                           BookingMapper bookingMapper,
+                           @Nullable ItemSearchIndex searchIndex,
+                           ItemViewCache viewCache) {
         super(objectMapper);
         this.itemMapper = itemMapper;
         this.commentMapper = commentMapper;
@@ -66,23 +82,31 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
         this.commentRepository = commentRepository;
         this.bookingRepository = bookingRepository;
         this.requestRepository = requestRepository;
+        this.searchIndex = searchIndex;
+        this.viewCache = viewCache;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ItemDtoOut findById(Long itemId, Long ownerId) {
-        checkUserId(ownerId);
-        Item item = repository.findByIdWithOwnerAndComments(itemId)
-                .orElseThrow(() -> new EntityNotFoundException(itemId, "Item"));
-        ItemDtoOut itemDtoOut = toDto(item);
-        boolean isOwner = Objects.equals(item.getOwner().getId(), ownerId);
-        if (isOwner) {
-            bookingRepository.findTopByItemIdAndStatusAndStartBeforeOrderByStartDesc(
-                            itemId, Status.APPROVED, LocalDateTime.now())
-                    .ifPresent(b -> itemDtoOut.setLastBooking(toBookingDtoShort(b)));
-            bookingRepository.findTopByItemIdAndStatusAndStartAfterOrderByStart(
-                            itemId, Status.APPROVED, LocalDateTime.now())
-                    .ifPresent(b -> itemDtoOut.setNextBooking(toBookingDtoShort(b)));
+    public ItemDtoOut findById(Long itemId, Long userId) {
+        Optional<ItemDtoOut> cached = viewCache.get(itemId, userId);
+        if (cached.isPresent()) {
+            checkUserId(userId);
+            return cached.get();
+        }
+        long generation = viewCache.generation();
+        ItemDetail detail = repository.findDetailById(itemId, userId, LocalDateTime.now())
+                .orElseThrow(() -> {
+                    checkUserId(userId);
+                    return new EntityNotFoundException(itemId, "Item");
+                });
+        if (!detail.getUserExists()) {
+            throw new UserNotFoundException(userId);
+        }
+        ItemDtoOut itemDtoOut = itemMapper.toDto(detail);
+        itemDtoOut.setComments(repository.findCommentDtosByItemId(itemId));
+        if (!detail.getIsOwner()) {
+            viewCache.put(itemId, detail.getOwnerId(), itemDtoOut, generation);
         }
         return itemDtoOut;
     }
@@ -91,11 +115,20 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
     @Transactional(readOnly = true)
     public List<ItemDtoOut> findAllByOwnerId(Integer from, Integer limit, Long ownerId) {
         checkUserId(ownerId);
-        List<Item> items = repository.findAllByOwnerIdWithComments(ownerId,
+        List<Long> itemIds = repository.findIdsByOwnerId(ownerId,
                 new PageRequester(from, limit, ITEM_SORT)).toList();
-        List<BookingShort> lastBookings = bookingRepository.findLastBookingsByItemOwnerId(ownerId);
-        List<BookingShort> nextBookings = bookingRepository.findNextBookingsByItemOwnerId(ownerId);
-        return mergeToDtoOut(items, lastBookings, nextBookings);
+        return findAllWithBookingsByIdIn(itemIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDtoOut> findAllByOwnerIdAfter(String after, Integer limit, Long ownerId) {
+        checkUserId(ownerId);
+        Cursor cursor = Cursor.decode(after, 1);
+        List<Long> itemIds = repository.findIdsByOwnerIdAfter(ownerId,
+                cursor.isFirstPage() ? 0L : cursor.getLong(0), Pageable.ofSize(limit + 1));
+        return CursorPage.of(findAllWithBookingsByIdIn(itemIds), limit,
+                item -> Cursor.encode(item.getId()), Function.identity());
     }
 
     @Override
@@ -107,12 +140,14 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
     @Override
     public ItemDtoOut update(ItemDtoIn dtoIn, Long ownerId) {
         checkItemOwner(dtoIn.getId(), ownerId);
+        viewCache.evictAfterCommit(dtoIn.getId());
         return toDto(repository.save(mergeToEntity(dtoIn, ownerId)));
     }
 
     @Override
     public ItemDtoOut patch(Long itemId, Map<String, Object> fields, Long ownerId) {
         checkItemOwner(itemId, ownerId);
+        viewCache.evictAfterCommit(itemId);
         Item item = repository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException(itemId, "Item"));
         return toDto(repository.save(tryUpdateFields(item, fields)));
@@ -121,8 +156,26 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
     @Override
     @Transactional(readOnly = true)
     public List<ItemDtoOut> searchByNameOrDescription(Integer from, Integer limit, String text) {
-        return toDto(repository.findAllByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailableIsTrue(
-                text, text, new PageRequester(from, limit, ITEM_SORT)).toList());
+        if (searchIndex != null) {
+            Optional<List<Long>> itemIds = searchIndex.search(text, from, limit);
+            if (itemIds.isPresent()) {
+                return toDto(orderByIds(itemIds.get(), repository.findAllById(itemIds.get())));
+            }
+        }
+        return toDto(repository.searchAvailableByText(
+                escapeLike(text), new PageRequester(from, limit, Sort.unsorted())).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDtoOut> searchByNameOrDescriptionAfter(String after, Integer limit, String text) {
+        Cursor cursor = Cursor.decode(after, 2);
+        List<Item> items = repository.searchAvailableByTextAfter(escapeLike(text),
+                cursor.isFirstPage() ? -1 : cursor.getInt(0),
+                cursor.isFirstPage() ? 0L : cursor.getLong(1),
+                Pageable.ofSize(limit + 1));
+        return CursorPage.of(items, limit,
+                item -> Cursor.encode(searchRank(item, text), item.getId()), this::toDto);
     }
 
     @Override
@@ -138,9 +191,30 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
         comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
         item.getComments().add(comment);
+        viewCache.evictAfterCommit(itemId);
         return toCommentDto(commentRepository.save(comment));
     }
 
+    private List<ItemDtoOut> findAllWithBookingsByIdIn(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<Item> items = orderByIds(itemIds, repository.findAllByIdInWithComments(itemIds));
+        List<BookingShort> lastBookings = bookingRepository.findLastBookingsByItemIdIn(itemIds);
+        List<BookingShort> nextBookings = bookingRepository.findNextBookingsByItemIdIn(itemIds);
+        return mergeToDtoOut(items, lastBookings, nextBookings);
+    }
+
+    private int searchRank(Item item, String text) {
+        return item.getName().toLowerCase().contains(text.toLowerCase()) ? 0 : 1;
+    }
+
+    private String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     private Item mergeToEntity(ItemDtoIn dtoIn, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
@@ -163,7 +237,7 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
     private List<ItemDtoOut> mergeToDtoOut(List<Item> items,
                                            List<BookingShort> lastBookings,
                                            List<BookingShort> nextBookings) {
-        Map<Long, ItemDtoOut> map = new HashMap<>();
+        Map<Long, ItemDtoOut> map = new LinkedHashMap<>();
         for (Item item : items) {
             ItemDtoOut itemDtoOut = toDto(item);
             itemDtoOut.setComments(toCommentDto(item.getComments()));
@@ -174,6 +248,21 @@ public class ItemServiceImpl extends AbstractService<ItemDtoIn, ItemDtoOut, Item
         return new ArrayList<>(map.values());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto findAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        checkUserId(userId);
+        if (!from.isBefore(to)) {
+            throw new AvailabilityWindowException("Error! Availability window start must be before its end.");
+        }
+        if (!repository.existsById(itemId)) {
+            throw new EntityNotFoundException(itemId, "Item");
+        }
+        try (Stream<BookingPeriod> periods = bookingRepository.streamBusyPeriodsByItemId(itemId, from, to)) {
+            return AvailabilityMerger.merge(itemId, from, to, periods.iterator());
+        }
+    }
+
     private void checkUserId(Long id) {
         if (!userRepository.existsById(id)) {
             throw new UserNotFoundException(id);
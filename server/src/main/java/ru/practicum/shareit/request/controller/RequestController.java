@@ -2,15 +2,17 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.RequestDtoIn;
 import ru.practicum.shareit.request.dto.RequestDtoOut;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.util.pager.CursorResponse;
 
 import java.util.List;
+import java.util.Objects;
 
-import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
-import static ru.practicum.shareit.util.UtilConstants.REQUESTS_PATH;
+import static ru.practicum.shareit.util.UtilConstants.*;
 
 @Slf4j
 @RestController
@@ -37,13 +39,18 @@ public class RequestController {
     }
 
     @GetMapping("all")
-    public List<RequestDtoOut> findAll(
+    public ResponseEntity<List<RequestDtoOut>> findAll(
             @RequestParam(required = false) Integer from,
             @RequestParam(value = "size", required = false) Integer limit,
-            @RequestHeader(value = OWNER_ID_HEADER) Long authorId) {
-        log.info("Received GET {}/all request, from = {}, limit = {}, authorId = {}.",
-                REQUESTS_PATH, from, limit, authorId);
-        return requestService.findAll(from, limit, authorId);
+            @RequestHeader(value = OWNER_ID_HEADER) Long authorId,
+            @RequestParam(value = CURSOR_PARAM, required = false) String after) {
+        log.info("Received GET {}/all request, from = {}, limit = {}, authorId = {}, after = {}.",
+                REQUESTS_PATH, from, limit, authorId, after);
+        if (after != null) {
+            return CursorResponse.of(requestService.findAllAfter(
+                    after, Objects.requireNonNullElse(limit, Integer.valueOf(DEFAULT_LIMIT)), authorId));
+        }
+        return ResponseEntity.ok(requestService.findAll(from, limit, authorId));
     }
 
     @GetMapping
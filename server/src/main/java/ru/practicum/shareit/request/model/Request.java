@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.abstraction.model.EntityClass;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -12,6 +14,8 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "requests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
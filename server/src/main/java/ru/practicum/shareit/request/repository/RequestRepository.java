@@ -2,11 +2,12 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.Request;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,9 +22,24 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     @Query(requestJql + "where r.author.id = ?1")
     List<Request> findAllByAuthorIdWithItems(Long authorId);
 
-    @EntityGraph(attributePaths = {"items"})
-    @Query("select r from Request r " +
-            "where r.author.id not in (?1) ")
-    Page<Request> findAllOtherRequests(Long authorId, Pageable pageable);
+    @Query("select r.id from Request r " +
+            "where r.author.id <> ?1")
+    Page<Long> findOtherRequestIds(Long authorId, Pageable pageable);
+
+    @Query("select r.id from Request r " +
+            "where r.author.id <> ?1 " +
+            "order by r.created desc, r.id desc")
+    List<Long> findFirstOtherRequestIds(Long authorId, Pageable pageable);
+
+    @Query("select r.id from Request r " +
+            "where r.author.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<Long> findOtherRequestIdsAfter(Long authorId, LocalDateTime afterCreated, Long afterId, Pageable pageable);
+
+    @Query("select distinct r from Request r " +
+            "LEFT OUTER JOIN FETCH r.items " +
+            "where r.id in ?1")
+    List<Request> findAllByIdInWithItems(Collection<Long> requestIds);
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.RequestDtoIn;
 import ru.practicum.shareit.request.dto.RequestDtoOut;
+import ru.practicum.shareit.util.pager.CursorPage;
 
 import java.util.List;
 
@@ -13,6 +14,8 @@ public interface RequestService {
 
     List<RequestDtoOut> findAll(Integer from, Integer limit, Long authorId);
 
+    CursorPage<RequestDtoOut> findAllAfter(String after, Integer limit, Long authorId);
+
     List<RequestDtoOut> findAllByAuthorId(Long authorId);
 
 }
\ No newline at end of file
@@ -16,9 +16,12 @@ import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pager.Cursor;
+import ru.practicum.shareit.util.pager.CursorPage;
 import ru.practicum.shareit.util.pager.PageRequester;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -56,7 +59,7 @@ public class RequestServiceImpl extends AbstractService<RequestDtoIn, RequestDto
         User user = userRepository.findById(authorId)
                 .orElseThrow(() -> new UserNotFoundException(authorId));
         Request request = toEntity(dtoIn);
-        request.setCreated(LocalDateTime.now());
+        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         request.setAuthor(user);
         return toDto(repository.save(request));
     }
@@ -73,7 +76,27 @@ public class RequestServiceImpl extends AbstractService<RequestDtoIn, RequestDto
     public List<RequestDtoOut> findAll(Integer from, Integer limit, Long authorId) {
         checkUserId(authorId);
         Pageable orderByCreatedDesc = new PageRequester(from, limit, Sort.by("created").descending());
-        return toDto(repository.findAllOtherRequests(authorId, orderByCreatedDesc).toList());
+        List<Long> requestIds = repository.findOtherRequestIds(authorId, orderByCreatedDesc).toList();
+        if (requestIds.isEmpty()) {
+            return List.of();
+        }
+        return toDto(orderByIds(requestIds, repository.findAllByIdInWithItems(requestIds)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RequestDtoOut> findAllAfter(String after, Integer limit, Long authorId) {
+        checkUserId(authorId);
+        Cursor cursor = Cursor.decode(after, 2);
+        Pageable firstRows = Pageable.ofSize(limit + 1);
+        List<Long> requestIds = cursor.isFirstPage()
+                ? repository.findFirstOtherRequestIds(authorId, firstRows)
+                : repository.findOtherRequestIdsAfter(authorId, cursor.getDateTime(0), cursor.getLong(1), firstRows);
+        List<Request> requests = requestIds.isEmpty()
+                ? List.of()
+                : orderByIds(requestIds, repository.findAllByIdInWithItems(requestIds));
+        return CursorPage.of(requests, limit,
+                request -> Cursor.encode(request.getCreated(), request.getId()), this::toDto);
     }
 
     private void checkUserId(Long id) {
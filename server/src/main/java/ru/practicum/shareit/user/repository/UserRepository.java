@@ -1,10 +1,17 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
+import static ru.practicum.shareit.util.config.CacheConfig.USER_EXISTS_CACHE;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Override
+    @Cacheable(cacheNames = USER_EXISTS_CACHE, sync = true)
+    boolean existsById(Long id);
+
     boolean existsByEmailAndIdNot(String email, Long id);
 
 }
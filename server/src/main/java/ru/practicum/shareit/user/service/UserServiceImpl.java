@@ -1,34 +1,54 @@
 package ru.practicum.shareit.user.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.abstraction.service.AbstractService;
 import ru.practicum.shareit.exceptions.user.EmailAlreadyRegisteredException;
 import ru.practicum.shareit.exceptions.user.UserNotFoundException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.UserDtoIn;
 import ru.practicum.shareit.user.dto.UserDtoOut;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.transaction.AfterCommit;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static ru.practicum.shareit.util.config.CacheConfig.USER_EXISTS_CACHE;
+
 @Service
 @Transactional
 public class UserServiceImpl extends AbstractService<UserDtoIn, UserDtoOut, User>
         implements UserService {
     private final UserMapper userMapper;
     private final UserRepository repository;
+    private final ItemViewCache itemViewCache;
+    private final SessionFactory sessionFactory;
+    private final ItemSearchIndex searchIndex;
 
     public UserServiceImpl(UserRepository repository,
                            ObjectMapper objectMapper,
-                           UserMapper userMapper) {
+                           UserMapper userMapper,
+                           ItemViewCache itemViewCache,
+                           SessionFactory sessionFactory,
+                           @Nullable ItemSearchIndex searchIndex) {
         super(objectMapper);
         this.repository = repository;
         this.userMapper = userMapper;
+        this.itemViewCache = itemViewCache;
+        this.sessionFactory = sessionFactory;
+        this.searchIndex = searchIndex;
     }
 
     @Override
@@ -38,6 +58,7 @@ public class UserServiceImpl extends AbstractService<UserDtoIn, UserDtoOut, User
     }
 
     @Override
+    @CacheEvict(cacheNames = USER_EXISTS_CACHE, key = "#result.id")
     public UserDtoOut save(UserDtoIn dtoIn) {
         return toDto(repository.save(toEntity(dtoIn)));
     }
@@ -45,6 +66,7 @@ public class UserServiceImpl extends AbstractService<UserDtoIn, UserDtoOut, User
     @Override
     public UserDtoOut update(UserDtoIn dtoIn) {
         checkUserId(dtoIn.getId());
+        itemViewCache.evictAllAfterCommit();
         return toDto(repository.save(toEntity(dtoIn)));
     }
 
@@ -52,6 +74,9 @@ public class UserServiceImpl extends AbstractService<UserDtoIn, UserDtoOut, User
     public UserDtoOut patch(Long id, Map<String, Object> fields) {
         checkUserEmail(id, String.valueOf(fields.get("email")));
         User user = repository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+        if (fields.containsKey("name")) {
+            itemViewCache.evictAllAfterCommit();
+        }
         return toDto(repository.save(tryUpdateFields(user, fields)));
     }
 
@@ -62,9 +87,22 @@ public class UserServiceImpl extends AbstractService<UserDtoIn, UserDtoOut, User
     }
 
     @Override
+    @CacheEvict(cacheNames = USER_EXISTS_CACHE, key = "#id")
     public void delete(Long id) {
         checkUserId(id);
+        if (searchIndex != null) {
+            searchIndex.removeOwnerItemsAfterCommit(id);
+        }
         repository.deleteById(id);
+        itemViewCache.evictAllAfterCommit();
+        AfterCommit.run(this::evictCascadedEntities);
+    }
+
+    private void evictCascadedEntities() {
+        Cache cache = sessionFactory.getCache();
+        cache.evict(Item.class);
+        cache.evict(Request.class);
+        cache.evictQueryRegions();
     }
 
     private void checkUserId(Long id) {
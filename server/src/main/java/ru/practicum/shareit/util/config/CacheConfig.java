@@ -0,0 +1,112 @@
+package ru.practicum.shareit.util.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USER_EXISTS_CACHE = "userExists";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit-server.cache.user-exists.max-size:100000}") long maxSize,
+                                     @Value("${shareit-server.cache.user-exists.ttl:10m}") Duration ttl,
+                                     @Value("${shareit-server.cache.user-exists.negative-ttl:30s}")
+                                     Duration negativeTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new GenerationGuardedCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.registerCustomCache(USER_EXISTS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    private static class GenerationGuardedCache extends CaffeineCache {
+
+        private final AtomicLong generation = new AtomicLong();
+
+        private GenerationGuardedCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            long readGeneration = generation.get();
+            T value = super.get(key, valueLoader);
+            if (generation.get() != readGeneration) {
+                super.evict(key);
+            }
+            return value;
+        }
+
+        @Override
+        public void evict(Object key) {
+            generation.incrementAndGet();
+            super.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            generation.incrementAndGet();
+            return super.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            generation.incrementAndGet();
+            super.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            generation.incrementAndGet();
+            return super.invalidate();
+        }
+    }
+
+    private static class ExistenceExpiry implements Expiry<Object, Object> {
+
+        private final long ttl;
+        private final long negativeTtl;
+
+        private ExistenceExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttl = ttl.toNanos();
+            this.negativeTtl = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return Boolean.TRUE.equals(value) ? ttl : negativeTtl;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.util.config;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${shareit-server.cache.hibernate.user.max-size:10000}") long userMaxSize,
+            @Value("${shareit-server.cache.hibernate.item.max-size:10000}") long itemMaxSize,
+            @Value("${shareit-server.cache.hibernate.request.max-size:5000}") long requestMaxSize,
+            @Value("${shareit-server.cache.hibernate.query.max-size:10000}") long queryMaxSize,
+            @Value("${shareit-server.cache.hibernate.ttl:1h}") Duration ttl) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("urn:shareit:hibernate:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+        cacheManager.createCache(User.class.getName(), region(userMaxSize, ttl));
+        cacheManager.createCache(Item.class.getName(), region(itemMaxSize, ttl));
+        cacheManager.createCache(Request.class.getName(), region(requestMaxSize, ttl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queryMaxSize, ttl));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1000))
+                        .build()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> region(long maxSize, Duration ttl) {
+        CacheConfiguration<Object, Object> configuration = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxSize))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))
+                .build();
+        return Eh107Configuration.fromEhcacheCacheConfiguration(configuration);
+    }
+}
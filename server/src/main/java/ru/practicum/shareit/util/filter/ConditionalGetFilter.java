@@ -0,0 +1,24 @@
+package ru.practicum.shareit.util.filter;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+import static ru.practicum.shareit.util.UtilConstants.BOOKING_PATH;
+import static ru.practicum.shareit.util.UtilConstants.ITEM_PATH;
+import static ru.practicum.shareit.util.UtilConstants.REQUESTS_PATH;
+
+@Component
+public class ConditionalGetFilter extends ShallowEtagHeaderFilter {
+
+    private static final List<String> ETAG_PATHS = List.of(ITEM_PATH, REQUESTS_PATH, BOOKING_PATH);
+    private static final String STREAMING_SUFFIX = "/export";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.endsWith(STREAMING_SUFFIX) || ETAG_PATHS.stream().noneMatch(path::startsWith);
+    }
+}
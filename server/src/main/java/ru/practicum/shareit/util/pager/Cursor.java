@@ -0,0 +1,75 @@
+package ru.practicum.shareit.util.pager;
+
+import ru.practicum.shareit.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class Cursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String token;
+    private final List<String> keys;
+
+    private Cursor(String token, List<String> keys) {
+        this.token = token;
+        this.keys = keys;
+    }
+
+    public static String encode(Object... keys) {
+        String raw = Arrays.stream(keys)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token, int keyCount) {
+        if (token.isEmpty()) {
+            return new Cursor(token, List.of());
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            List<String> keys = Arrays.asList(raw.split("\\" + SEPARATOR, -1));
+            if (keys.size() != keyCount) {
+                throw new InvalidCursorException(token);
+            }
+            return new Cursor(token, keys);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    public boolean isFirstPage() {
+        return keys.isEmpty();
+    }
+
+    public Long getLong(int index) {
+        return parse(index, Long::valueOf);
+    }
+
+    public Integer getInt(int index) {
+        return parse(index, Integer::valueOf);
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        return parse(index, LocalDateTime::parse);
+    }
+
+    private <T> T parse(int index, Function<String, T> parser) {
+        if (isFirstPage()) {
+            return null;
+        }
+        try {
+            return parser.apply(keys.get(index));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.util.pager;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, String> cursorOf,
+                                          Function<List<E>, List<T>> mapper) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(mapper.apply(rows), null);
+        }
+        List<E> page = rows.subList(0, limit);
+        return new CursorPage<>(mapper.apply(page), cursorOf.apply(page.get(limit - 1)));
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.util.pager;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static ru.practicum.shareit.util.UtilConstants.NEXT_CURSOR_HEADER;
+
+public class CursorResponse {
+
+    private CursorResponse() {
+    }
+
+    public static <T> ResponseEntity<List<T>> of(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+}
@@ -1,11 +1,3 @@
-DROP TABLE IF EXISTS requests_items;
-DROP TABLE IF EXISTS item_comments;
-DROP TABLE IF EXISTS booking;
-DROP TABLE IF EXISTS comment;
-DROP TABLE IF EXISTS item;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
@@ -37,6 +29,8 @@ CREATE TABLE IF NOT EXISTS item
     CONSTRAINT  fk_ir FOREIGN KEY (request_id) REFERENCES requests (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_item_owner_id ON item (owner_id, id);
+
 CREATE TABLE IF NOT EXISTS requests_items
 (
     request_id  BIGINT NOT NULL,
@@ -58,6 +52,11 @@ CREATE TABLE IF NOT EXISTS booking
     CONSTRAINT  fk_bi FOREIGN KEY (item_id)   REFERENCES item (id)  ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking (item_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_start ON booking (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_booker_status_start ON booking (booker_id, status, start_time DESC);
+
 CREATE TABLE IF NOT EXISTS comment
 (
     id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_booking_booker_counts ON booking (booker_id) INCLUDE (status, start_time, end_time);
+CREATE INDEX IF NOT EXISTS idx_booking_item_counts ON booking (item_id) INCLUDE (status, start_time, end_time);
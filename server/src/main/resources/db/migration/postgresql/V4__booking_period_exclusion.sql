@@ -0,0 +1,47 @@
+-- Databases created before the overlap check may already hold overlapping APPROVED/WAITING
+-- bookings of one item, which would make the exclusion constraint below fail.
+-- They are repaired first: per item, bookings are kept in order (APPROVED before WAITING,
+-- then the earlier created one), and every booking overlapping a kept one is set to REJECTED.
+-- Every rejected booking id is reported as a NOTICE in the migration log.
+-- Periods are half-open, so a booking may start exactly when the previous one ends.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+DECLARE
+    candidate RECORD;
+BEGIN
+    FOR candidate IN
+        SELECT b.id, b.item_id, b.status, b.start_time, b.end_time
+        FROM booking b
+        WHERE b.status IN ('APPROVED', 'WAITING')
+          AND EXISTS (SELECT 1
+                      FROM booking o
+                      WHERE o.item_id = b.item_id
+                        AND o.id <> b.id
+                        AND o.status IN ('APPROVED', 'WAITING')
+                        AND tsrange(o.start_time, o.end_time, '[)') && tsrange(b.start_time, b.end_time, '[)'))
+        ORDER BY b.item_id, b.status = 'WAITING', b.id
+    LOOP
+        UPDATE booking
+        SET status = 'REJECTED'
+        WHERE id = candidate.id
+          AND EXISTS (SELECT 1
+                      FROM booking o
+                      WHERE o.item_id = candidate.item_id
+                        AND o.id <> candidate.id
+                        AND o.status IN ('APPROVED', 'WAITING')
+                        AND (o.status = 'APPROVED' AND candidate.status = 'WAITING'
+                            OR o.status = candidate.status AND o.id < candidate.id)
+                        AND tsrange(o.start_time, o.end_time, '[)')
+                            && tsrange(candidate.start_time, candidate.end_time, '[)'));
+        IF FOUND THEN
+            RAISE NOTICE 'booking % of item % rejected as overlapping', candidate.id, candidate.item_id;
+        END IF;
+    END LOOP;
+END $$;
+
+ALTER TABLE booking DROP CONSTRAINT IF EXISTS ex_booking_period;
+ALTER TABLE booking ADD CONSTRAINT ex_booking_period
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time, '[)') WITH &&)
+    WHERE (status IN ('APPROVED', 'WAITING'));
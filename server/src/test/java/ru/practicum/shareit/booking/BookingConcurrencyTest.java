@@ -0,0 +1,215 @@
+package ru.practicum.shareit.booking;
+
+import lombok.SneakyThrows;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.booking.BookingAlreadyApprovedException;
+import ru.practicum.shareit.exceptions.booking.BookingOverlapException;
+import ru.practicum.shareit.item.ItemDtoIn;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.UserDtoIn;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final EasyRandom generator = new EasyRandom();
+    private final List<Long> userIds = new ArrayList<>();
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+    private ExecutorService executor;
+    private Long ownerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        ownerId = saveUser();
+        itemId = saveItem();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    void save_whenBookersRaceForOverlappingPeriods_acceptOneBookingPerPeriod() {
+        int rounds = 10;
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(saveUser());
+        }
+        for (int round = 0; round < rounds; round++) {
+            LocalDateTime start = base.plusDays(round * 2L);
+            List<Callable<Long>> attempts = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Long bookerId = bookerIds.get(i);
+                LocalDateTime attemptStart = start.plusMinutes(i);
+                attempts.add(() -> bookingService.save(bookingDtoIn(itemId, attemptStart, attemptStart.plusHours(1)),
+                        bookerId).getId());
+            }
+
+            List<Throwable> failures = race(attempts);
+
+            assertEquals(THREADS - 1, failures.size());
+            failures.forEach(failure -> assertTrue(failure instanceof BookingOverlapException, failure.toString()));
+        }
+        assertEquals(rounds, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(itemId))
+                .count());
+    }
+
+    @Test
+    void save_whenPeriodsDisjoint_acceptEveryBooking() {
+        Long bookerId = saveUser();
+        List<Callable<Long>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            LocalDateTime start = base.plusDays(i);
+            attempts.add(() -> bookingService.save(bookingDtoIn(itemId, start, start.plusHours(1)), bookerId)
+                    .getId());
+        }
+
+        assertTrue(race(attempts).isEmpty());
+    }
+
+    @Test
+    void save_whenPeriodsBackToBack_acceptBoth() {
+        Long bookerId = saveUser();
+        bookingService.save(bookingDtoIn(itemId, base, base.plusHours(1)), bookerId);
+        bookingService.save(bookingDtoIn(itemId, base.plusHours(1), base.plusHours(2)), bookerId);
+        assertThrows(BookingOverlapException.class, () -> bookingService.save(
+                bookingDtoIn(itemId, base.plusMinutes(59), base.plusHours(3)), bookerId));
+    }
+
+    @Test
+    @SneakyThrows
+    void save_whenAnotherItemLocked_doNotWaitForThatLock() {
+        Long bookerId = saveUser();
+        Long otherItemId = saveItem();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.lockById(otherItemId);
+            locked.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> bookingService.save(bookingDtoIn(itemId, base, base.plusHours(1)), bookerId));
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void patch_whenOwnerDecidesConcurrently_applyExactlyOneDecision() {
+        Long bookerId = saveUser();
+        for (int round = 0; round < 10; round++) {
+            LocalDateTime start = base.plusDays(round);
+            Long bookingId = bookingService.save(bookingDtoIn(itemId, start, start.plusHours(1)), bookerId).getId();
+            List<Callable<Long>> decisions = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                boolean approved = i % 2 == 0;
+                decisions.add(() -> bookingService.patch(bookingId, ownerId, approved).getId());
+            }
+
+            List<Throwable> failures = race(decisions);
+
+            assertEquals(THREADS - 1, failures.size());
+            failures.forEach(failure -> assertTrue(failure instanceof BookingAlreadyApprovedException,
+                    failure.toString()));
+            assertNotEquals(Status.WAITING, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+        }
+    }
+
+    @SneakyThrows
+    private List<Throwable> race(List<Callable<Long>> attempts) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (Callable<Long> attempt : attempts) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return attempt.call();
+            }));
+        }
+        start.countDown();
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<Long> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        return failures;
+    }
+
+    private BookingDtoIn bookingDtoIn(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDtoIn.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+    private Long saveItem() {
+        return itemService.save(ItemDtoIn.builder()
+                .name(generator.nextObject(String.class))
+                .description(generator.nextObject(String.class))
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    private Long saveUser() {
+        UserDtoIn dtoIn = generator.nextObject(UserDtoIn.class);
+        dtoIn.setId(null);
+        Long id = userService.save(dtoIn).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await(10, TimeUnit.SECONDS);
+    }
+}
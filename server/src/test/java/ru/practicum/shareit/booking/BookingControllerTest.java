@@ -6,27 +6,47 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.booking.BookingDecisionLimitException;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.util.filter.ConditionalGetFilter;
 
+import java.io.OutputStream;
+import java.sql.SQLException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.util.UtilConstants.*;
 
@@ -39,6 +59,8 @@ class BookingControllerTest {
     private ObjectMapper mapper;
     @Autowired
     private MockMvc mvc;
+    @Autowired
+    private ConditionalGetFilter conditionalGetFilter;
 
     private final LocalDateTime start = LocalDateTime.of(2098, 1, 1, 1, 1, 1);
     private final LocalDateTime end = LocalDateTime.of(2099, 1, 1, 1, 1, 1);
@@ -95,6 +117,36 @@ class BookingControllerTest {
                 .save(any(BookingDtoIn.class), any(Long.class));
     }
 
+    @SneakyThrows
+    @Test
+    void post_whenExclusionConstraintViolated_returnConflict() {
+        when(bookingService.save(bookingDtoIn, 1L))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+        mvc.perform(post(bookingPath)
+                        .header(ownerIdHeader, 1L)
+                        .content(mapper.writeValueAsString(bookingDtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @SneakyThrows
+    @Test
+    void post_whenOtherIntegrityViolation_returnInternalServerError() {
+        when(bookingService.save(bookingDtoIn, 1L))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("null value in column", "23502")));
+        mvc.perform(post(bookingPath)
+                        .header(ownerIdHeader, 1L)
+                        .content(mapper.writeValueAsString(bookingDtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError());
+    }
+
     @SneakyThrows
     @Test
     void get_whenBookingIdAndBookerIdCorrect_thenReturnDtoOutAndOk() {
@@ -159,6 +211,135 @@ class BookingControllerTest {
         verify(bookingService, times(1)).patch(anyLong(), anyLong(), anyBoolean());
     }
 
+    @SneakyThrows
+    @Test
+    void patchAll_whenCorrectParams_returnResults() {
+        Long itemOwnerId = 1L;
+        BookingDecisionBatchDtoIn dtoIn = BookingDecisionBatchDtoIn.builder()
+                .decisions(List.of(new BookingDecisionDtoIn(1L, true), new BookingDecisionDtoIn(2L, false)))
+                .build();
+        when(bookingService.patchAll(dtoIn.getDecisions(), itemOwnerId))
+                .thenReturn(List.of(
+                        BookingDecisionResult.builder().bookingId(1L).applied(true).status(Status.APPROVED).build(),
+                        BookingDecisionResult.builder().bookingId(2L).applied(false).status(Status.REJECTED)
+                                .error("error").build()));
+        mvc.perform(patch(bookingPath)
+                        .content(mapper.writeValueAsString(dtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(ownerIdHeader, itemOwnerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].applied", is(true)))
+                .andExpect(jsonPath("$[0].status", is(Status.APPROVED.toString())))
+                .andExpect(jsonPath("$[1].applied", is(false)))
+                .andExpect(jsonPath("$[1].error", is("error")));
+        verify(bookingService, times(1)).patchAll(dtoIn.getDecisions(), itemOwnerId);
+    }
+
+    @SneakyThrows
+    @Test
+    void patchAll_whenBatchOverLimit_returnBadRequest() {
+        Long itemOwnerId = 1L;
+        BookingDecisionBatchDtoIn dtoIn = BookingDecisionBatchDtoIn.builder()
+                .decisions(List.of(new BookingDecisionDtoIn(1L, true)))
+                .build();
+        when(bookingService.patchAll(dtoIn.getDecisions(), itemOwnerId))
+                .thenThrow(new BookingDecisionLimitException(BOOKING_DECISIONS_MAX + 1, BOOKING_DECISIONS_MAX));
+        mvc.perform(patch(bookingPath)
+                        .content(mapper.writeValueAsString(dtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(ownerIdHeader, itemOwnerId))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void getCountsByOwnerId_returnCounts() {
+        when(bookingService.countByItemOwnerId(1L))
+                .thenReturn(new BookingStateCounts(6, 1, 2, 3, 4, 5));
+        mvc.perform(get(bookingPath + "/owner/counts")
+                        .header(ownerIdHeader, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(6)))
+                .andExpect(jsonPath("$.current", is(1)))
+                .andExpect(jsonPath("$.future", is(2)))
+                .andExpect(jsonPath("$.past", is(3)))
+                .andExpect(jsonPath("$.waiting", is(4)))
+                .andExpect(jsonPath("$.rejected", is(5)));
+        verify(bookingService, times(1)).countByItemOwnerId(1L);
+        verify(bookingService, never()).countByBookerId(anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void exportByOwnerId_streamNdjson() {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookingService).exportByItemOwnerId(eq(1L), any(OutputStream.class));
+        MvcResult result = mvc.perform(get(bookingPath + "/owner/export")
+                        .header(ownerIdHeader, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+        verify(bookingService, never()).exportByBookerId(anyLong(), any(OutputStream.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportByBookerId_writeFirstLineBeforeStreamCompletes() {
+        CountDownLatch gate = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            gate.await(5, TimeUnit.SECONDS);
+            out.write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookingService).exportByBookerId(eq(1L), any(OutputStream.class));
+        MvcResult result = mvc.perform(get(bookingPath + "/export")
+                        .header(ownerIdHeader, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (result.getResponse().getContentAsString().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(result.getResponse().isCommitted());
+            assertEquals("{\"id\":1}\n", result.getResponse().getContentAsString());
+        } finally {
+            gate.countDown();
+        }
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @SneakyThrows
+    @Test
+    void conditionalGetFilter_whenExport_writeThroughWithoutCaching() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] line = "{\"id\":1}\n".getBytes(StandardCharsets.UTF_8);
+        conditionalGetFilter.doFilter(new MockHttpServletRequest("GET", bookingPath + "/owner/export"), response,
+                (filteredRequest, filteredResponse) -> {
+                    filteredResponse.getOutputStream().write(line);
+                    filteredResponse.flushBuffer();
+                    assertTrue(response.isCommitted());
+                    assertArrayEquals(line, response.getContentAsByteArray());
+                });
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
     @SneakyThrows
     @Test
     void getAllByBookerId_whenFromAndLimitNull_returnWithDefaultFromAndLimitDtoOutAndOk() {
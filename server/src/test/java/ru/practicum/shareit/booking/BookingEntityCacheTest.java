@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.ItemDtoIn;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.UserDtoIn;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BookingEntityCacheTest {
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private final EasyRandom generator = new EasyRandom();
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = saveUser();
+        bookerId = saveUser();
+        itemId = itemService.save(ItemDtoIn.builder()
+                .name(generator.nextObject(String.class))
+                .description(generator.nextObject(String.class))
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.delete(ownerId);
+        userService.delete(bookerId);
+    }
+
+    @Test
+    void save_whenEntitiesCached_loadNoUserOrItemFromDatabase() {
+        Statistics statistics = sessionFactory.getStatistics();
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+        bookingService.save(bookingDtoIn(1), bookerId);
+        long coldLoads = statistics.getEntityLoadCount();
+
+        statistics.clear();
+        bookingService.save(bookingDtoIn(3), bookerId);
+
+        assertEquals(2, coldLoads);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void delete_whenOwnerDeleted_evictCascadedItem() {
+        assertTrue(itemRepository.findById(itemId).isPresent());
+        userService.delete(ownerId);
+        assertTrue(itemRepository.findById(itemId).isEmpty());
+        ownerId = saveUser();
+    }
+
+    private BookingDtoIn bookingDtoIn(int startInDays) {
+        return BookingDtoIn.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusDays(startInDays))
+                .end(LocalDateTime.now().plusDays(startInDays + 1))
+                .build();
+    }
+
+    private Long saveUser() {
+        UserDtoIn dtoIn = generator.nextObject(UserDtoIn.class);
+        dtoIn.setId(null);
+        return userService.save(dtoIn).getId();
+    }
+}
@@ -0,0 +1,225 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
+import ru.practicum.shareit.booking.state.searcher.SearchByStateFactory;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the index the H2 test database picks for every booking query the repositories generate.
+ * It covers the shared V1 indexes as H2 plans them; the Postgres planner and the Postgres-only
+ * V3 covering indexes are not exercised here. Where H2 keeps the foreign key index (its optimizer
+ * does not weigh ORDER BY ... LIMIT against index order), that choice is pinned as well, so any
+ * change of plan shows up.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.BookingH2IndexPlanTest$CapturingStatementInspector")
+class BookingH2IndexPlanTest {
+
+    private static final Pattern TABLE_ACCESS = Pattern.compile(
+            "\"PUBLIC\"\\.\"(\\w+)\" \"?\\w+\"?\\s*/\\* PUBLIC\\.(\\w+)(?:: ([^*]*))? \\*/");
+    private static final Map<State, String> BOOKER_INDEXES = Map.of(
+            State.ALL, "FK_BU_INDEX_2",
+            State.CURRENT, "IDX_BOOKING_BOOKER_START",
+            State.PAST, "FK_BU_INDEX_2",
+            State.FUTURE, "IDX_BOOKING_BOOKER_START",
+            State.WAITING, "IDX_BOOKING_BOOKER_STATUS_START",
+            State.REJECTED, "IDX_BOOKING_BOOKER_STATUS_START");
+    private static final Map<State, String> ITEM_OWNER_INDEXES = Map.of(
+            State.ALL, "FK_BI_INDEX_2",
+            State.CURRENT, "IDX_BOOKING_ITEM_START",
+            State.PAST, "FK_BI_INDEX_2",
+            State.FUTURE, "IDX_BOOKING_ITEM_START",
+            State.WAITING, "FK_BI_INDEX_2",
+            State.REJECTED, "FK_BI_INDEX_2");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private SearchByStateFactory searchByStateFactory;
+
+    @ParameterizedTest
+    @EnumSource(value = State.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+    void findAll_whenBooker_accessBookingByBookerIndex(State state) {
+        for (boolean cursor : new boolean[]{false, true}) {
+            List<TableAccess> plan = plan(() -> bookingRepository.findAll(query(BookingRole.BOOKER, state, cursor)));
+            TableAccess booking = access(plan, "BOOKING");
+            assertThat(booking.condition).startsWith("BOOKER_ID = ?1");
+            assertThat(booking.index).as(state + " " + plan).isEqualTo(BOOKER_INDEXES.get(state));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = State.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+    void findAll_whenItemOwner_accessItemByOwnerAndBookingByItemIndex(State state) {
+        for (boolean cursor : new boolean[]{false, true}) {
+            List<TableAccess> plan = plan(() -> bookingRepository.findAll(
+                    query(BookingRole.ITEM_OWNER, state, cursor)));
+            TableAccess item = access(plan, "ITEM");
+            assertThat(item.condition).startsWith("OWNER_ID = ?1");
+            assertThat(item.index).isEqualTo("FK_IU_INDEX_2");
+            TableAccess booking = access(plan, "BOOKING");
+            assertThat(booking.condition).contains("ITEM_ID = ");
+            assertThat(booking.index).as(state + " " + plan).isEqualTo(ITEM_OWNER_INDEXES.get(state));
+        }
+    }
+
+    @Test
+    void countStates_accessBookingByRoleIndex() {
+        LocalDateTime now = LocalDateTime.of(2031, 1, 1, 0, 0);
+        TableAccess booker = access(plan(() -> bookingRepository.countStatesByBookerId(100001L, now)), "BOOKING");
+        assertThat(booker.condition).matches("BOOKER_ID = \\?\\d+");
+        assertThat(booker.index).isEqualTo("FK_BU_INDEX_2");
+        List<TableAccess> ownerPlan = plan(() -> bookingRepository.countStatesByItemOwnerId(100001L, now));
+        assertThat(access(ownerPlan, "ITEM").condition).matches("OWNER_ID = \\?\\d+");
+        TableAccess owner = access(ownerPlan, "BOOKING");
+        assertThat(owner.condition).contains("ITEM_ID = ");
+        assertThat(owner.index).isEqualTo("FK_BI_INDEX_2");
+    }
+
+    @Test
+    void findLastBookingsByItemIdIn_accessBookingByItemIndex() {
+        List<TableAccess> plan = plan(() -> bookingRepository.findLastBookingsByItemIdIn(List.of(100001L, 100002L)));
+        assertThat(plan).filteredOn(tableAccess -> tableAccess.table.equals("BOOKING"))
+                .extracting(tableAccess -> tableAccess.index)
+                .isNotEmpty()
+                .isSubsetOf("IDX_BOOKING_ITEM_START", "IDX_BOOKING_ITEM_STATUS_START");
+    }
+
+    @Test
+    void findIdsByOwnerIdAfter_useItemOwnerIndex() {
+        List<TableAccess> plan = plan(() -> itemRepository.findIdsByOwnerIdAfter(100001L, 100500L,
+                Pageable.ofSize(20)));
+        assertThat(access(plan, "ITEM").index).isEqualTo("IDX_ITEM_OWNER_ID");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (id, name, email) " +
+                "select x, 'user' || x, 'plan' || x || '@test.com' from system_range(100001, 100100)");
+        jdbcTemplate.update("insert into item (id, name, description, available, owner_id) " +
+                "select x, 'item', 'item', true, 100001 + mod(x, 100) from system_range(100001, 101000)");
+        jdbcTemplate.update("insert into booking (id, item_id, booker_id, status, start_time, end_time) " +
+                "select x, 100001 + mod(x, 1000), 100001 + mod(x, 97), " +
+                "case mod(x, 4) when 0 then 'WAITING' when 1 then 'APPROVED' " +
+                "when 2 then 'REJECTED' else 'CANCELED' end, " +
+                "dateadd('HOUR', x, TIMESTAMP '2030-01-01 00:00:00'), " +
+                "dateadd('HOUR', x + 1, TIMESTAMP '2030-01-01 00:00:00') " +
+                "from system_range(100001, 120000)");
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from booking where id between 100001 and 120000");
+        jdbcTemplate.update("delete from item where id between 100001 and 101000");
+        jdbcTemplate.update("delete from users where id between 100001 and 100100");
+    }
+
+    private BookingQuery query(BookingRole role, State state, boolean cursor) {
+        BookingQuery.BookingQueryBuilder query = BookingQuery.builder()
+                .role(role)
+                .userId(100001L)
+                .state(searchByStateFactory.searchByState(state))
+                .now(LocalDateTime.of(2031, 1, 1, 0, 0))
+                .limit(20);
+        if (cursor) {
+            query.afterStart(LocalDateTime.of(2031, 6, 1, 0, 0)).afterId(110000L);
+        }
+        return query.build();
+    }
+
+    private List<TableAccess> plan(Runnable repositoryCall) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        repositoryCall.run();
+        assertThat(CapturingStatementInspector.STATEMENTS).hasSize(1);
+        String plan = explain(CapturingStatementInspector.STATEMENTS.get(0));
+        List<TableAccess> accesses = new ArrayList<>();
+        Matcher matcher = TABLE_ACCESS.matcher(plan);
+        while (matcher.find()) {
+            String condition = matcher.group(3) == null ? "" : matcher.group(3).replaceAll("\\s+", " ").trim();
+            accesses.add(new TableAccess(matcher.group(1), matcher.group(2), condition));
+        }
+        assertThat(accesses).as(plan).isNotEmpty()
+                .noneMatch(tableAccess -> tableAccess.index.endsWith("tableScan"));
+        return accesses;
+    }
+
+    private TableAccess access(List<TableAccess> plan, String table) {
+        return plan.stream()
+                .filter(tableAccess -> tableAccess.table.equals(table))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(table + " is not accessed in " + plan));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameterCount = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameterCount; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private static class TableAccess {
+        private final String table;
+        private final String index;
+        private final String condition;
+
+        private TableAccess(String table, String index, String condition) {
+            this.table = table;
+            this.index = index;
+            this.condition = condition;
+        }
+
+        @Override
+        public String toString() {
+            return table + " via " + index + " (" + condition + ")";
+        }
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
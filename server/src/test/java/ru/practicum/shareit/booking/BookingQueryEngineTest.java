@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pager.CursorPage;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@SpringBootTest
+@Transactional
+class BookingQueryEngineTest {
+
+    private static final int PAGE_SIZE = 5;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final EasyRandom generator = new EasyRandom();
+    private final List<Booking> bookings = new ArrayList<>();
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(generator.nextObject(User.class));
+        booker = userRepository.save(generator.nextObject(User.class));
+        User stranger = userRepository.save(generator.nextObject(User.class));
+        Item item = saveItem(owner);
+        Item strangerItem = saveItem(stranger);
+        LocalDateTime now = LocalDateTime.now();
+        Status[] statuses = Status.values();
+        for (int i = 0; i < 36; i++) {
+            LocalDateTime start;
+            LocalDateTime end;
+            if (i % 3 == 0) {
+                start = now.minusDays(10).minusHours(i);
+                end = now.minusDays(9);
+            } else if (i % 3 == 1) {
+                start = now.minusDays(1).minusHours(i);
+                end = now.plusDays(1);
+            } else {
+                start = now.plusDays(2).plusHours(i);
+                end = now.plusDays(3).plusHours(i);
+            }
+            Status status = statuses[i % statuses.length];
+            bookings.add(saveBooking(item, booker, status, start, end));
+            saveBooking(strangerItem, owner, status, start, end);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = State.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+    void findAll_whenPagedByOffset_matchExpectedWithOneStatementPerPage(State state) {
+        List<Long> expected = expected(state);
+        for (boolean asOwner : new boolean[]{true, false}) {
+            Statistics statistics = statistics();
+            long elapsed = 0;
+            List<Long> actual = new ArrayList<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                actual.clear();
+                for (int from = 0; from <= expected.size(); from += PAGE_SIZE) {
+                    entityManager.clear();
+                    statistics.clear();
+                    long started = System.nanoTime();
+                    List<BookingDtoOut> page = asOwner
+                            ? bookingService.findAllByItemOwnerId(from, PAGE_SIZE, owner.getId(), state)
+                            : bookingService.findAllByBookerId(from, PAGE_SIZE, booker.getId(), state);
+                    elapsed += System.nanoTime() - started;
+                    assertEquals(1, statistics.getPrepareStatementCount());
+                    page.forEach(dtoOut -> actual.add(dtoOut.getId()));
+                }
+            }
+            assertEquals(expected, actual);
+            log.info("state = {}, owner = {}, mean page time = {} us.", state, asOwner,
+                    elapsed / 1000 / ROUNDS / (expected.size() / PAGE_SIZE + 1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = State.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+    void findAllAfter_whenPagedByCursor_matchExpectedWithOneStatementPerPage(State state) {
+        List<Long> expected = expected(state);
+        for (boolean asOwner : new boolean[]{true, false}) {
+            Statistics statistics = statistics();
+            List<Long> actual = new ArrayList<>();
+            String cursor = "";
+            do {
+                entityManager.clear();
+                statistics.clear();
+                CursorPage<BookingDtoOut> page = asOwner
+                        ? bookingService.findAllByItemOwnerIdAfter(cursor, PAGE_SIZE, owner.getId(), state)
+                        : bookingService.findAllByBookerIdAfter(cursor, PAGE_SIZE, booker.getId(), state);
+                assertEquals(1, statistics.getPrepareStatementCount());
+                page.getContent().forEach(dtoOut -> actual.add(dtoOut.getId()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            assertEquals(expected, actual);
+        }
+    }
+
+    private List<Long> expected(State state) {
+        LocalDateTime now = LocalDateTime.now();
+        Predicate<Booking> filter;
+        switch (state) {
+            case CURRENT:
+                filter = b -> !b.getStart().isAfter(now) && !b.getEnd().isBefore(now);
+                break;
+            case FUTURE:
+                filter = b -> b.getStart().isAfter(now);
+                break;
+            case PAST:
+                filter = b -> b.getEnd().isBefore(now);
+                break;
+            case WAITING:
+                filter = b -> b.getStatus() == Status.WAITING;
+                break;
+            case REJECTED:
+                filter = b -> b.getStatus() == Status.REJECTED;
+                break;
+            default:
+                filter = b -> true;
+        }
+        return bookings.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Statistics statistics() {
+        bookingService.findAllByItemOwnerId(0, PAGE_SIZE, owner.getId(), State.ALL);
+        bookingService.findAllByBookerId(0, PAGE_SIZE, booker.getId(), State.ALL);
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Item saveItem(User itemOwner) {
+        return itemRepository.save(Item.builder()
+                .name(generator.nextObject(String.class))
+                .description(generator.nextObject(String.class))
+                .available(true)
+                .owner(itemOwner)
+                .build());
+    }
+
+    private Booking saveBooking(Item item, User user, Status status, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(user)
+                .status(status)
+                .build());
+    }
+}
@@ -5,12 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
+import ru.practicum.shareit.booking.state.searcher.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -109,53 +110,47 @@ class BookingRepositoryTest {
     @Test
     void findAllByBookerId() {
         entityManager.persist(futureBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findAllByBookerId(user.getId(), Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
+        List<Booking> foundBookings = findAll(BookingRole.BOOKER, new All());
+        assertThat(foundBookings).hasSize(1);
     }
 
     @Test
     void findAllByItemOwnerId() {
         entityManager.persist(futureBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findAllByItemOwnerId(user.getId(), Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
+        List<Booking> foundBookings = findAll(BookingRole.ITEM_OWNER, new All());
+        assertThat(foundBookings).hasSize(1);
     }
 
     @Test
     void findAllByBookerIdWhereStartIsAfterCurrent() {
         entityManager.persist(futureBooking);
         entityManager.persist(oldBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findAllByBookerIdWhereStartInFuture(user.getId(), Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
+        List<Booking> foundBookings = findAll(BookingRole.BOOKER, new Future());
+        assertThat(foundBookings).hasSize(1);
     }
 
     @Test
     void findAllByItemOwnerIdWhereStartIsAfterCurrent() {
         entityManager.persist(futureBooking);
         entityManager.persist(oldBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findAllByItemOwnerIdWhereStartInFuture(user.getId(), Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
+        List<Booking> foundBookings = findAll(BookingRole.ITEM_OWNER, new Future());
+        assertThat(foundBookings).hasSize(1);
     }
 
     @Test
     void findAllByBookerIdWhereEndBeforeCurrent() {
         entityManager.persist(futureBooking);
         entityManager.persist(oldBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findAllByBookerIdWhereEndInPast(user.getId(), Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
+        List<Booking> foundBookings = findAll(BookingRole.BOOKER, new Past());
+        assertThat(foundBookings).hasSize(1);
     }
 
     @Test
     void findAllByItemOwnerIdWhereEndBeforeCurrent() {
         entityManager.persist(futureBooking);
         entityManager.persist(oldBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findAllByItemOwnerIdWhereEndInPast(user.getId(), Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
+        List<Booking> foundBookings = findAll(BookingRole.ITEM_OWNER, new Past());
+        assertThat(foundBookings).hasSize(1);
     }
 
     @Test
@@ -163,9 +158,8 @@ class BookingRepositoryTest {
         entityManager.persist(futureBooking);
         entityManager.persist(oldBooking);
         entityManager.persist(currentBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findAllByBookerIdWithTimestampsBetweenStartAndEnd(user.getId(), Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
+        List<Booking> foundBookings = findAll(BookingRole.BOOKER, new Current());
+        assertThat(foundBookings).hasSize(1);
     }
 
     @Test
@@ -173,30 +167,63 @@ class BookingRepositoryTest {
         entityManager.persist(futureBooking);
         entityManager.persist(oldBooking);
         entityManager.persist(currentBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findBookingsByItemOwnerIdAndStatus(user.getId(), Status.WAITING, Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
-        assertThat(foundBookings.toList().get(0)).isEqualTo(futureBooking);
+        List<Booking> foundBookings = findAll(BookingRole.ITEM_OWNER, new Waiting());
+        assertThat(foundBookings).hasSize(1);
+        assertThat(foundBookings.get(0)).isEqualTo(futureBooking);
     }
 
     @Test
-    void findLastBookingsByItemOwnerId() {
+    void findLastBookingsByItemIdIn() {
         entityManager.persist(futureBookingIsApproved);
         entityManager.persist(oldBooking);
         entityManager.persist(currentBooking);
         List<BookingShort> foundBookings = bookingRepository
-                .findLastBookingsByItemOwnerId(user.getId());
+                .findLastBookingsByItemIdIn(List.of(item.getId()));
         assertThat(foundBookings).hasSize(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(currentBooking.getId());
     }
 
     @Test
-    void findNextBookingsByItemOwnerId() {
+    void findNextBookingsByItemIdIn() {
         entityManager.persist(futureBookingIsApproved);
         entityManager.persist(oldBooking);
         entityManager.persist(currentBooking);
         List<BookingShort> foundBookings = bookingRepository
-                .findNextBookingsByItemOwnerId(user.getId());
+                .findNextBookingsByItemIdIn(List.of(item.getId()));
         assertThat(foundBookings).hasSize(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(futureBookingIsApproved.getId());
+    }
+
+    @Test
+    void findLastAndNextBookingsByItemIdIn_whenOwnerHasOtherItems_returnOnlyRequestedItems() {
+        Item otherItem = entityManager.persist(Item.builder()
+                .name("other_item")
+                .description("other_item_desc")
+                .available(true)
+                .owner(user)
+                .build());
+        entityManager.persist(futureBookingIsApproved);
+        entityManager.persist(currentBooking);
+        entityManager.persist(Booking.builder()
+                .start(start.minusYears(1000))
+                .end(end.minusYears(1000))
+                .item(otherItem)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build());
+        entityManager.persist(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(otherItem)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build());
+        assertThat(bookingRepository.findLastBookingsByItemIdIn(List.of(otherItem.getId())))
+                .extracting(BookingShort::getItemId)
+                .containsOnly(otherItem.getId());
+        assertThat(bookingRepository.findNextBookingsByItemIdIn(List.of(otherItem.getId())))
+                .extracting(BookingShort::getItemId)
+                .containsOnly(otherItem.getId());
     }
 
     @Test
@@ -216,10 +243,9 @@ class BookingRepositoryTest {
         entityManager.persist(futureBooking);
         entityManager.persist(oldBooking);
         entityManager.persist(currentBooking);
-        Page<Booking> foundBookings = bookingRepository
-                .findBookingsByBookerIdAndStatus(user.getId(), Status.WAITING, Pageable.ofSize(10));
-        assertThat(foundBookings.toList()).hasSize(1);
-        assertThat(foundBookings.toList().get(0)).isEqualTo(futureBooking);
+        List<Booking> foundBookings = findAll(BookingRole.BOOKER, new Waiting());
+        assertThat(foundBookings).hasSize(1);
+        assertThat(foundBookings.get(0)).isEqualTo(futureBooking);
     }
 
     @Test
@@ -245,4 +271,14 @@ class BookingRepositoryTest {
         assertThat(foundBooking).isPresent();
         assertThat(foundBooking.get()).hasFieldOrPropertyWithValue("id", futureBookingIsApproved.getId());
     }
+
+    private List<Booking> findAll(BookingRole role, SearchByState state) {
+        return bookingRepository.findAll(BookingQuery.builder()
+                .role(role)
+                .userId(user.getId())
+                .state(state)
+                .now(LocalDateTime.now())
+                .limit(10)
+                .build());
+    }
 }
@@ -1,22 +1,35 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.InvalidCursorException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pager.CursorPage;
 
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +48,10 @@ class BookingServiceIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private BookingServiceImpl bookingService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper mapper;
 
     private final EasyRandom generator = new EasyRandom();
     private final DateTimeFormatter format = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
@@ -526,4 +543,171 @@ class BookingServiceIntegrationTest {
         assertEquals(booker.getId(), dtoOut.getBooker().getId());
         assertEquals(Status.WAITING, dtoOut.getStatus());
     }
+
+    @Test
+    void findAllByBookerIdAfter_whenWalkingCursor_returnEveryBookingOnceInStartDescOrder() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User booker = userRepository.save(generator.nextObject(User.class));
+        Item item = itemRepository.save(Item.builder()
+                .name(generator.nextObject(String.class))
+                .description(generator.nextObject(String.class))
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.parse(LocalDateTime.now().plusDays(1).format(format));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Booking booking = bookingRepository.save(Booking.builder()
+                    .start(start.plusHours(i / 2))
+                    .end(start.plusDays(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(i == 0 ? Status.REJECTED : Status.WAITING)
+                    .build());
+            expected.add(0, booking.getId());
+        }
+        List<Long> visited = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<BookingDtoOut> page = bookingService.findAllByBookerIdAfter(cursor, 2, booker.getId(), State.ALL);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(2);
+            page.getContent().forEach(dtoOut -> visited.add(dtoOut.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(visited).containsExactlyElementsOf(expected);
+
+        CursorPage<BookingDtoOut> rejected = bookingService.findAllByItemOwnerIdAfter("", 2, owner.getId(),
+                State.REJECTED);
+        assertThat(rejected.getContent()).extracting(BookingDtoOut::getId).containsExactly(expected.get(4));
+        assertNull(rejected.getNextCursor());
+    }
+
+    @Test
+    void findAllByBookerIdAfter_whenCursorMalformed_throwInvalidCursorException() {
+        User booker = userRepository.save(generator.nextObject(User.class));
+        assertThrows(InvalidCursorException.class,
+                () -> bookingService.findAllByBookerIdAfter("not-a-cursor", 2, booker.getId(), State.ALL));
+    }
+
+    @Test
+    void patchAll_whenMixedDecisions_returnResultPerDecision() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User stranger = userRepository.save(generator.nextObject(User.class));
+        User booker = userRepository.save(generator.nextObject(User.class));
+        Item item = saveItem(owner);
+        Item strangerItem = saveItem(stranger);
+        List<Booking> waiting = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            waiting.add(saveBooking(item, booker, Status.WAITING, i));
+        }
+        Booking approved = saveBooking(item, booker, Status.APPROVED, 10);
+        Booking foreign = saveBooking(strangerItem, booker, Status.WAITING, 0);
+        List<BookingDecisionDtoIn> decisions = new ArrayList<>();
+        waiting.forEach(booking -> decisions.add(new BookingDecisionDtoIn(booking.getId(), booking.getId() % 2 == 0)));
+        decisions.add(new BookingDecisionDtoIn(approved.getId(), false));
+        decisions.add(new BookingDecisionDtoIn(foreign.getId(), true));
+        decisions.add(new BookingDecisionDtoIn(waiting.get(0).getId(), false));
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingDecisionResult> results = bookingService.patchAll(decisions, owner.getId());
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertEquals(decisions.size(), results.size());
+        for (int i = 0; i < waiting.size(); i++) {
+            Long bookingId = waiting.get(i).getId();
+            Status expected = bookingId % 2 == 0 ? Status.APPROVED : Status.REJECTED;
+            assertEquals(bookingId, results.get(i).getBookingId());
+            assertTrue(results.get(i).isApplied());
+            assertEquals(expected, results.get(i).getStatus());
+            assertEquals(expected, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+        }
+        assertFalse(results.get(5).isApplied());
+        assertEquals(Status.APPROVED, results.get(5).getStatus());
+        assertFalse(results.get(6).isApplied());
+        assertNull(results.get(6).getStatus());
+        assertEquals(Status.WAITING, bookingRepository.findById(foreign.getId()).orElseThrow().getStatus());
+        assertFalse(results.get(7).isApplied());
+        assertNotNull(results.get(7).getError());
+    }
+
+    @Test
+    void countByBookerIdAndItemOwnerId_returnCountsPerStateInOneStatement() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User booker = userRepository.save(generator.nextObject(User.class));
+        Item item = saveItem(owner);
+        saveBooking(item, booker, Status.APPROVED, -10);
+        saveBooking(item, booker, Status.REJECTED, -10);
+        saveBooking(item, booker, Status.WAITING, 3);
+        saveBooking(item, booker, Status.WAITING, 5);
+        saveBooking(item, booker, Status.REJECTED, 7);
+        saveBooking(item, owner, Status.APPROVED, 9);
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+        User stranger = userRepository.save(generator.nextObject(User.class));
+        saveBooking(saveItem(stranger), booker, Status.WAITING, 11);
+        bookingService.countByItemOwnerId(owner.getId());
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        statistics.clear();
+
+        BookingStateCounts ownerCounts = bookingService.countByItemOwnerId(owner.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        BookingStateCounts bookerCounts = bookingService.countByBookerId(booker.getId());
+
+        assertEquals(new BookingStateCounts(7, 1, 4, 2, 2, 2), ownerCounts);
+        assertEquals(new BookingStateCounts(7, 1, 4, 2, 3, 2), bookerCounts);
+        assertEquals(new BookingStateCounts(), bookingService.countByBookerId(stranger.getId()));
+    }
+
+    @Test
+    @SneakyThrows
+    void exportByItemOwnerId_writeOneJsonLinePerBookingInStartOrder() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User booker = userRepository.save(generator.nextObject(User.class));
+        Item item = saveItem(owner);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            bookings.add(saveBooking(item, booker, Status.APPROVED, 1100 - i));
+        }
+        saveBooking(saveItem(booker), owner, Status.APPROVED, 0);
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bookingService.exportByItemOwnerId(owner.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(bookings.size(), lines.length);
+        assertEquals(bookings.get(bookings.size() - 1).getId(), mapper.readValue(lines[0], BookingDtoOut.class).getId());
+        assertEquals(bookings.get(0).getId(), mapper.readValue(lines[lines.length - 1], BookingDtoOut.class).getId());
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isLessThan(500);
+    }
+
+    private Item saveItem(User owner) {
+        return itemRepository.save(Item.builder()
+                .name(generator.nextObject(String.class))
+                .description(generator.nextObject(String.class))
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    private Booking saveBooking(Item item, User booker, Status status, int startInDays) {
+        return bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(startInDays + 1))
+                .end(LocalDateTime.now().plusDays(startInDays + 2))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
 }
@@ -6,17 +6,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.booking.state.searcher.*;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.booking.BookingAlreadyApprovedException;
+import ru.practicum.shareit.exceptions.booking.BookingDecisionLimitException;
+import ru.practicum.shareit.exceptions.booking.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.UnknownStateException;
 import ru.practicum.shareit.exceptions.item.ItemNotAvailableException;
 import ru.practicum.shareit.exceptions.user.ObjectOwnerException;
@@ -26,17 +29,19 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
-import ru.practicum.shareit.util.pager.PageRequester;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.util.UtilConstants.BOOKING_DECISIONS_MAX;
 import static ru.practicum.shareit.util.UtilConstants.DEFAULT_FROM;
 import static ru.practicum.shareit.util.UtilConstants.DEFAULT_LIMIT;
 
@@ -126,7 +131,7 @@ class BookingServiceTest {
                 .thenReturn(false);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.lockById(anyLong()))
                 .thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.save(dtoIn, user.getId()));
@@ -134,6 +139,42 @@ class BookingServiceTest {
                 .save(any(Booking.class));
     }
 
+    @Test
+    void create_whenPeriodOverlapsBooking_assertThrowsBookingOverlapException() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        ReflectionTestUtils.setField(bookingService, "itemRepository", itemRepository);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+        ReflectionTestUtils.setField(bookingService, "repository", bookingRepository);
+        BookingDtoIn dtoIn = generator.nextObject(BookingDtoIn.class);
+        dtoIn.setEnd(LocalDateTime.MAX);
+        User user = generator.nextObject(User.class);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.lockById(anyLong()))
+                .thenReturn(Optional.of(dtoIn.getItemId()));
+        when(bookingRepository.existsOverlappingBooking(dtoIn.getItemId(), dtoIn.getStart(), dtoIn.getEnd(),
+                dtoIn.getId()))
+                .thenReturn(true);
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.save(dtoIn, user.getId()));
+        verify(bookingRepository, never())
+                .save(any(Booking.class));
+    }
+
+    @Test
+    void patchAll_whenBatchOverLimit_assertThrowsBookingDecisionLimitException() {
+        BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+        ReflectionTestUtils.setField(bookingService, "repository", bookingRepository);
+        List<BookingDecisionDtoIn> decisions = LongStream.rangeClosed(1, BOOKING_DECISIONS_MAX + 1)
+                .mapToObj(id -> new BookingDecisionDtoIn(id, true))
+                .collect(Collectors.toList());
+        assertThrows(BookingDecisionLimitException.class,
+                () -> bookingService.patchAll(decisions, generator.nextLong()));
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void create() {
         ReflectionTestUtils.setField(bookingService, "bookingMapper", new BookingMapper());
@@ -154,6 +195,8 @@ class BookingServiceTest {
                 .thenReturn(false);
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
+        when(itemRepository.lockById(anyLong()))
+                .thenReturn(Optional.of(item.getId()));
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
         when(bookingRepository.save(any(Booking.class)))
@@ -223,7 +266,7 @@ class BookingServiceTest {
                 .thenReturn(Optional.of(user));
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.lockById(anyLong()))
                 .thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.update(dtoIn, generator.nextLong()));
@@ -251,6 +294,8 @@ class BookingServiceTest {
                 .thenReturn(Optional.of(user));
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
+        when(itemRepository.lockById(anyLong()))
+                .thenReturn(Optional.of(item.getId()));
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class)))
@@ -309,21 +354,21 @@ class BookingServiceTest {
         assertThrows(ObjectOwnerException.class,
                 () -> bookingService.patch(generator.nextLong(), generator.nextLong(), generator.nextBoolean()));
         verify(bookingRepository, never())
-                .save(any(Booking.class));
+                .findByIdWithBookerAndItem(anyLong());
     }
 
     @Test
     void patch_whenBookingStatusIsNotWaiting_assertThrowsBookingAlreadyApprovedException() {
         BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
         ReflectionTestUtils.setField(bookingService, "repository", bookingRepository);
+        when(bookingRepository.updateStatusIfWaiting(anyLong(), anyLong(), any(Status.class)))
+                .thenReturn(0);
         when(bookingRepository.existsByIdAndItemOwnerId(anyLong(), anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.existsByIdAndStatus(anyLong(), any(Status.class)))
-                .thenReturn(false);
         assertThrows(BookingAlreadyApprovedException.class,
                 () -> bookingService.patch(generator.nextLong(), generator.nextLong(), generator.nextBoolean()));
         verify(bookingRepository, never())
-                .save(any(Booking.class));
+                .findByIdWithBookerAndItem(anyLong());
     }
 
     @Test
@@ -333,7 +378,7 @@ class BookingServiceTest {
         assertThrows(ObjectOwnerException.class,
                 () -> bookingService.patch(generator.nextLong(), generator.nextLong(), generator.nextBoolean()));
         verify(bookingRepository, never())
-                .save(any(Booking.class));
+                .findByIdWithBookerAndItem(anyLong());
     }
 
     @Test
@@ -343,14 +388,11 @@ class BookingServiceTest {
         BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
         ReflectionTestUtils.setField(bookingService, "repository", bookingRepository);
         Booking booking = generator.nextObject(Booking.class);
-        when(bookingRepository.existsByIdAndItemOwnerId(anyLong(), anyLong()))
-                .thenReturn(true);
-        when(bookingRepository.existsByIdAndStatus(anyLong(), eq(Status.WAITING)))
-                .thenReturn(true);
+        booking.setStatus(Status.APPROVED);
+        when(bookingRepository.updateStatusIfWaiting(anyLong(), anyLong(), eq(Status.APPROVED)))
+                .thenReturn(1);
         when(bookingRepository.findByIdWithBookerAndItem(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class)))
-                .then(returnsFirstArg());
         BookingDtoOut dtoOut = bookingService.patch(booking.getId(), generator.nextLong(), true);
         assertEquals(booking.getId(), dtoOut.getId());
         assertEquals(booking.getStart(), dtoOut.getStart());
@@ -364,6 +406,8 @@ class BookingServiceTest {
         assertEquals(booking.getBooker().getId(), dtoOut.getBooker().getId());
         assertEquals(Status.APPROVED, dtoOut.getStatus());
         verify(bookingRepository, times(1))
+                .updateStatusIfWaiting(eq(booking.getId()), anyLong(), eq(Status.APPROVED));
+        verify(bookingRepository, never())
                 .save(any(Booking.class));
     }
 
@@ -374,14 +418,11 @@ class BookingServiceTest {
         BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
         ReflectionTestUtils.setField(bookingService, "repository", bookingRepository);
         Booking booking = generator.nextObject(Booking.class);
-        when(bookingRepository.existsByIdAndItemOwnerId(anyLong(), anyLong()))
-                .thenReturn(true);
-        when(bookingRepository.existsByIdAndStatus(anyLong(), eq(Status.WAITING)))
-                .thenReturn(true);
+        booking.setStatus(Status.REJECTED);
+        when(bookingRepository.updateStatusIfWaiting(anyLong(), anyLong(), eq(Status.REJECTED)))
+                .thenReturn(1);
         when(bookingRepository.findByIdWithBookerAndItem(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class)))
-                .then(returnsFirstArg());
         BookingDtoOut dtoOut = bookingService.patch(booking.getId(), booking.getItem().getOwner().getId(), false);
         assertEquals(booking.getId(), dtoOut.getId());
         assertEquals(booking.getStart(), dtoOut.getStart());
@@ -395,6 +436,8 @@ class BookingServiceTest {
         assertEquals(booking.getBooker().getId(), dtoOut.getBooker().getId());
         assertEquals(Status.REJECTED, dtoOut.getStatus());
         verify(bookingRepository, times(1))
+                .updateStatusIfWaiting(eq(booking.getId()), anyLong(), eq(Status.REJECTED));
+        verify(bookingRepository, never())
                 .save(any(Booking.class));
     }
 
@@ -417,13 +460,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("all", new All(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("all", new All()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.ITEM_OWNER && query.getState() instanceof All)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByItemOwnerId(from, limit, generator.nextLong(), State.ALL);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -448,13 +492,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("future", new Future(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("future", new Future()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdWhereStartInFuture(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.ITEM_OWNER && query.getState() instanceof Future)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByItemOwnerId(from, limit, generator.nextLong(), State.FUTURE);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -479,13 +524,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("current", new Current(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("current", new Current()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdWithTimestampsBetweenStartAndEnd(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.ITEM_OWNER && query.getState() instanceof Current)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByItemOwnerId(from, limit, generator.nextLong(), State.CURRENT);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -510,13 +556,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("past", new Past(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("past", new Past()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdWhereEndInPast(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.ITEM_OWNER && query.getState() instanceof Past)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByItemOwnerId(from, limit, generator.nextLong(), State.PAST);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -541,13 +588,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("rejected", new Rejected(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("rejected", new Rejected()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findBookingsByItemOwnerIdAndStatus(anyLong(), eq(Status.REJECTED), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.ITEM_OWNER && query.getState() instanceof Rejected)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByItemOwnerId(from, limit, generator.nextLong(), State.REJECTED);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -572,13 +620,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("waiting", new Waiting(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("waiting", new Waiting()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findBookingsByItemOwnerIdAndStatus(anyLong(), eq(Status.WAITING), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.ITEM_OWNER && query.getState() instanceof Waiting)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByItemOwnerId(from, limit, generator.nextLong(), State.WAITING);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -626,13 +675,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("all", new All(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("all", new All()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByBookerId(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.BOOKER && query.getState() instanceof All)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByBookerId(from, limit, generator.nextLong(), State.ALL);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -657,13 +707,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("current", new Current(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("current", new Current()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByBookerIdWithTimestampsBetweenStartAndEnd(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.BOOKER && query.getState() instanceof Current)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByBookerId(from, limit, generator.nextLong(), State.CURRENT);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -688,13 +739,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("future", new Future(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("future", new Future()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByBookerIdWhereStartInFuture(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.BOOKER && query.getState() instanceof Future)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByBookerId(from, limit, generator.nextLong(), State.FUTURE);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -719,13 +771,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("past", new Past(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("past", new Past()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findAllByBookerIdWhereEndInPast(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.BOOKER && query.getState() instanceof Past)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByBookerId(from, limit, generator.nextLong(), State.PAST);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -750,13 +803,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("rejected", new Rejected(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("rejected", new Rejected()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findBookingsByBookerIdAndStatus(anyLong(), eq(Status.REJECTED), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.BOOKER && query.getState() instanceof Rejected)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByBookerId(from, limit, generator.nextLong(), State.REJECTED);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
@@ -781,13 +835,14 @@ class BookingServiceTest {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
         SearchByStateFactory searchByStateFactory = Mockito.mock(SearchByStateFactory.class, CALLS_REAL_METHODS);
-        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("waiting", new Waiting(bookingRepository)));
+        ReflectionTestUtils.setField(searchByStateFactory, "stateMap", Map.of("waiting", new Waiting()));
         ReflectionTestUtils.setField(bookingService, "searchByStateFactory", searchByStateFactory);
         Booking booking = generator.nextObject(Booking.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(bookingRepository.findBookingsByBookerIdAndStatus(anyLong(), eq(Status.WAITING), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAll(argThat((BookingQuery query) ->
+                query.getRole() == BookingRole.BOOKER && query.getState() instanceof Waiting)))
+                .thenReturn(List.of(booking));
         List<BookingDtoOut> bookingDtoOuts = bookingService.findAllByBookerId(from, limit, generator.nextLong(), State.WAITING);
         assertThat(bookingDtoOuts).hasSize(1);
         BookingDtoOut out = bookingDtoOuts.get(0);
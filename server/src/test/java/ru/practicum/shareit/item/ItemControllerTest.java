@@ -6,12 +6,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exceptions.InvalidCursorException;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilityInterval;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.util.pager.CursorPage;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -24,9 +29,13 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.UtilConstants.CURSOR_PARAM;
 import static ru.practicum.shareit.util.UtilConstants.ITEM_PATH;
+import static ru.practicum.shareit.util.UtilConstants.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.util.UtilConstants.OWNER_ID_HEADER;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -104,6 +113,30 @@ class ItemControllerTest {
         verify(itemService, times(1)).findById(any(Long.class), any(Long.class));
     }
 
+    @SneakyThrows
+    @Test
+    void get_whenIfNoneMatchEqualsEtag_returnNotModifiedWithoutBody() {
+        Long itemId = 1L;
+        Long ownerId = 1L;
+        when(itemService.findById(itemId, ownerId))
+                .thenReturn(itemDtoOut);
+        String etag = mvc.perform(get(itemPath + "/{id}", itemId)
+                        .header(ownerIdHeader, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(get(itemPath + "/{id}", itemId)
+                        .header(ownerIdHeader, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mvc.perform(get(itemPath + "/{id}", itemId)
+                        .header(ownerIdHeader, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk());
+    }
+
     @SneakyThrows
     @Test
     void put_whenDtoInCorrect_returnDtoOut() {
@@ -158,6 +191,67 @@ class ItemControllerTest {
                 .findAllByOwnerId(any(Integer.class), any(Integer.class), any(Long.class));
     }
 
+    @SneakyThrows
+    @Test
+    void getAllByOwnerId_whenCursorGiven_returnPageAndNextCursorHeader() {
+        when(itemService.findAllByOwnerIdAfter(anyString(), anyInt(), anyLong()))
+                .thenReturn(new CursorPage<>(List.of(itemDtoOut), "next"));
+        mvc.perform(get(itemPath)
+                        .param(CURSOR_PARAM, "")
+                        .param("size", "1")
+                        .header(ownerIdHeader, 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(itemService, never()).findAllByOwnerId(anyInt(), anyInt(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllByOwnerId_whenCursorMalformed_returnBadRequest() {
+        when(itemService.findAllByOwnerIdAfter(anyString(), anyInt(), anyLong()))
+                .thenThrow(new InvalidCursorException("bad"));
+        mvc.perform(get(itemPath)
+                        .param(CURSOR_PARAM, "bad")
+                        .header(ownerIdHeader, 1))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenWindowGiven_returnBusyAndFreeIntervals() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        AvailabilityInterval busy = new AvailabilityInterval(from.plusDays(2), from.plusDays(3));
+        when(itemService.findAvailability(1L, 2L, from, to))
+                .thenReturn(ItemAvailabilityDto.builder()
+                        .itemId(1L)
+                        .from(from)
+                        .to(to)
+                        .busy(List.of(busy))
+                        .free(List.of(new AvailabilityInterval(from, busy.getStart()),
+                                new AvailabilityInterval(busy.getEnd(), to)))
+                        .build());
+        mvc.perform(get(itemPath + "/{id}/availability", 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header(ownerIdHeader, 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.free", hasSize(2)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenWindowMissing_returnBadRequest() {
+        mvc.perform(get(itemPath + "/{id}/availability", 1)
+                        .param("from", LocalDateTime.now().toString())
+                        .header(ownerIdHeader, 2))
+                .andExpect(status().isBadRequest());
+        verify(itemService, never()).findAvailability(anyLong(), anyLong(), any(), any());
+    }
+
     @SneakyThrows
     @Test
     void searchByNameOrDescription_whenCorrect_returnDtoOutAndOk() {
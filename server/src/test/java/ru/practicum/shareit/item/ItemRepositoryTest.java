@@ -11,6 +11,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -56,9 +57,42 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerIdWithComments() {
-        Page<Item> foundItems = itemRepository.findAllByOwnerIdWithComments(user.getId(), Pageable.ofSize(10));
-        assertThat(foundItems.toList()).hasSize(1);
+    void findIdsByOwnerId() {
+        Page<Long> foundIds = itemRepository.findIdsByOwnerId(user.getId(), Pageable.ofSize(10));
+        assertThat(foundIds.toList()).containsExactly(item.getId());
+    }
+
+    @Test
+    void findAllByIdInWithComments() {
+        List<Item> foundItems = itemRepository.findAllByIdInWithComments(List.of(item.getId()));
+        assertThat(foundItems).containsExactly(item);
+    }
+
+    @Test
+    void searchAvailableByText_whenNameOrDescriptionMatch_returnAvailableOnlyNameMatchesFirst() {
+        Item unavailable = entityManager.persistAndFlush(Item.builder()
+                .name("Drill unavailable")
+                .description("cordless")
+                .available(false)
+                .owner(user)
+                .build());
+        Item byDescription = entityManager.persistAndFlush(Item.builder()
+                .name("Screwdriver")
+                .description("works like a DRILL")
+                .available(true)
+                .owner(user)
+                .build());
+        Item byName = entityManager.persistAndFlush(Item.builder()
+                .name("Power drill")
+                .description("heavy")
+                .available(true)
+                .owner(user)
+                .build());
+        Page<Item> found = itemRepository.searchAvailableByText("dRiLl", Pageable.ofSize(10));
+        assertThat(found.getTotalElements()).isEqualTo(2);
+        assertThat(found.toList()).extracting(Item::getId)
+                .containsExactly(byName.getId(), byDescription.getId())
+                .doesNotContain(unavailable.getId());
     }
 
     @Test
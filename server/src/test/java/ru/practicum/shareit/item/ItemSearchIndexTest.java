@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndexStatus;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "shareit-server.search.index.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:shareit-search-index"
+})
+class ItemSearchIndexTest {
+
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@test.omg")
+                .build());
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void search_whenItemsSavedAfterStartup_returnAvailablePrefixMatchesNameFirst() {
+        ItemDtoOut byDescription = itemService.save(item("Screwdriver", "works like a drill", true), owner.getId());
+        ItemDtoOut byName = itemService.save(item("Power drill", "heavy", true), owner.getId());
+        itemService.save(item("Drill broken", "unavailable", false), owner.getId());
+
+        assertThat(itemService.searchByNameOrDescription(0, 10, "DRI"))
+                .extracting(ItemDtoOut::getId)
+                .containsExactly(byName.getId(), byDescription.getId());
+        assertThat(itemService.searchByNameOrDescription(1, 1, "dri"))
+                .extracting(ItemDtoOut::getId)
+                .containsExactly(byDescription.getId());
+    }
+
+    @Test
+    void search_whenItemPatchedUnavailable_removeFromPostings() {
+        ItemDtoOut saved = itemService.save(item("Ladder", "tall", true), owner.getId());
+        assertThat(itemService.searchByNameOrDescription(0, 10, "lad")).hasSize(1);
+
+        itemService.patch(saved.getId(), Map.of("available", false), owner.getId());
+
+        assertThat(itemService.searchByNameOrDescription(0, 10, "lad")).isEmpty();
+        assertThat(searchIndex.checkConsistency().getConsistent()).isTrue();
+    }
+
+    @Test
+    void search_whenOwnerDeleted_dropCascadedItems() {
+        User other = userRepository.save(User.builder()
+                .name("other")
+                .email("other@test.omg")
+                .build());
+        itemService.save(item("Hammer", "claw", true), owner.getId());
+        ItemDtoOut kept = itemService.save(item("Hammer drill", "sds", true), other.getId());
+        assertThat(itemService.searchByNameOrDescription(0, 10, "hammer")).hasSize(2);
+
+        userService.delete(owner.getId());
+
+        assertThat(searchIndex.search("hammer", 0, 10)).contains(List.of(kept.getId()));
+        assertThat(itemService.searchByNameOrDescription(0, 10, "hammer"))
+                .extracting(ItemDtoOut::getId)
+                .containsExactly(kept.getId());
+        assertThat(searchIndex.checkConsistency().getConsistent()).isTrue();
+    }
+
+    @Test
+    void checkConsistency_whenRowWrittenBehindIndex_reportMissingUntilRebuild() {
+        itemService.save(item("Tent", "camping", true), owner.getId());
+        jdbcTemplate.update("insert into item (name, description, available, owner_id) values (?, ?, ?, ?)",
+                "Tent large", "camping", true, owner.getId());
+
+        ItemSearchIndexStatus status = searchIndex.checkConsistency();
+        assertThat(status.getMissing()).isEqualTo(1);
+        assertThat(status.getConsistent()).isFalse();
+
+        assertThat(searchIndex.rebuild().getItems()).isEqualTo(2);
+        assertThat(searchIndex.checkConsistency().getConsistent()).isTrue();
+        assertThat(itemService.searchByNameOrDescription(0, 10, "tent")).hasSize(2);
+    }
+
+    @Test
+    void rebuild_whenMemoryBudgetExceeded_disableIndex() {
+        itemService.save(item("Kayak", "river", true), owner.getId());
+        ItemSearchIndex smallIndex = new ItemSearchIndex(itemRepository, 1, 10);
+
+        assertThat(smallIndex.rebuild().isReady()).isFalse();
+        assertThat(smallIndex.search("kayak", 0, 10)).isEmpty();
+        assertThat(itemService.searchByNameOrDescription(0, 10, "kayak")).hasSize(1);
+    }
+
+    private ItemDtoIn item(String name, String description, boolean available) {
+        return ItemDtoIn.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import org.jeasy.random.EasyRandom;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,18 +10,28 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.AvailabilityInterval;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.exception.AvailabilityWindowException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pager.CursorPage;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,7 +49,11 @@ class ItemServiceIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
     @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
     private ItemServiceImpl itemService;
+    @Autowired
+    private EntityManager entityManager;
 
     private final EasyRandom generator = new EasyRandom();
 
@@ -112,7 +128,129 @@ class ItemServiceIntegrationTest {
         assertEquals(lastBooking.getBooker().getId(), dtoOut.getLastBooking().getBookerId());
         assertEquals(nextBooking.getId(), dtoOut.getNextBooking().getId());
         assertEquals(nextBooking.getBooker().getId(), dtoOut.getNextBooking().getBookerId());
-        assertNull(dtoOut.getComments());
+        assertThat(dtoOut.getComments()).isEmpty();
+    }
+
+    @Test
+    void findById_whenOwnerWithBookingsAndCommentsFromManyAuthors_runTwoStatements() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        Item item = generator.nextObject(Item.class);
+        item.setOwner(owner);
+        item.setRequest(null);
+        item.setComments(new ArrayList<>());
+        item = itemRepository.save(item);
+        for (int i = 0; i < 5; i++) {
+            User author = userRepository.save(generator.nextObject(User.class));
+            bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().minusDays(i + 2))
+                    .end(LocalDateTime.now().minusDays(i + 1))
+                    .item(item)
+                    .booker(author)
+                    .status(Status.APPROVED)
+                    .build());
+            Comment comment = commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .author(author)
+                    .item(item)
+                    .created(LocalDateTime.now())
+                    .build());
+            item.getComments().add(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ItemDtoOut dtoOut = itemService.findById(item.getId(), owner.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(dtoOut.getComments()).hasSize(5)
+                .allSatisfy(comment -> assertNotNull(comment.getAuthorName()));
+        assertNotNull(dtoOut.getLastBooking());
+        assertNull(dtoOut.getNextBooking());
+    }
+
+    @Test
+    void findAllByOwnerIdAndSearch_whenManyItemsWithComments_loadCommentAuthorsInBatches() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            authors.add(userRepository.save(generator.nextObject(User.class)));
+        }
+        for (int i = 0; i < 100; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("batch-item " + i)
+                    .description(generator.nextObject(String.class))
+                    .available(true)
+                    .owner(owner)
+                    .comments(new ArrayList<>())
+                    .build());
+            for (int j = 0; j < 20; j++) {
+                item.getComments().add(commentRepository.save(Comment.builder()
+                        .text("comment " + j)
+                        .author(authors.get((i * 20 + j) % authors.size()))
+                        .item(item)
+                        .created(LocalDateTime.now())
+                        .build()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ItemDtoOut> owned = itemService.findAllByOwnerId(0, 100, owner.getId());
+        assertThat(owned).hasSize(100)
+                .allSatisfy(dtoOut -> assertThat(dtoOut.getComments()).hasSize(20)
+                        .allSatisfy(comment -> assertNotNull(comment.getAuthorName())));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+
+        entityManager.clear();
+        statistics.clear();
+        List<ItemDtoOut> found = itemService.searchByNameOrDescription(0, 100, "batch-item");
+        assertThat(found).hasSize(100)
+                .allSatisfy(dtoOut -> assertThat(dtoOut.getComments()).hasSize(20)
+                        .allSatisfy(comment -> assertNotNull(comment.getAuthorName())));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void searchAndFindAllByOwnerId_whenItemsAnswerRequests_returnRequestIdWithoutLoadingRequests() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User author = userRepository.save(generator.nextObject(User.class));
+        Map<Long, Long> requestByItem = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            Request request = requestRepository.save(Request.builder()
+                    .description(generator.nextObject(String.class))
+                    .created(LocalDateTime.now())
+                    .author(author)
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("requested-item " + i)
+                    .description(generator.nextObject(String.class))
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            requestByItem.put(item.getId(), request.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ItemDtoOut> found = itemService.searchByNameOrDescription(0, 20, "requested-item");
+        assertThat(found).hasSize(20)
+                .allSatisfy(dtoOut -> assertEquals(requestByItem.get(dtoOut.getId()), dtoOut.getRequestId()));
+        assertThat(statistics.getEntityStatistics(Request.class.getName()).getLoadCount()).isZero();
+
+        entityManager.clear();
+        statistics.clear();
+        List<ItemDtoOut> owned = itemService.findAllByOwnerId(0, 20, owner.getId());
+        assertThat(owned).hasSize(20)
+                .allSatisfy(dtoOut -> assertEquals(requestByItem.get(dtoOut.getId()), dtoOut.getRequestId()));
+        assertThat(statistics.getEntityStatistics(Request.class.getName()).getLoadCount()).isZero();
     }
 
     @Test
@@ -149,7 +287,7 @@ class ItemServiceIntegrationTest {
         assertNull(dtoOut.getLastBooking());
         assertNull(dtoOut.getNextBooking());
         assertNull(dtoOut.getNextBooking());
-        assertNull(dtoOut.getComments());
+        assertThat(dtoOut.getComments()).isEmpty();
     }
 
     @Test
@@ -231,6 +369,101 @@ class ItemServiceIntegrationTest {
         assertEquals(item.getAvailable(), dtoOut.getAvailable());
     }
 
+    @Test
+    void findAllByOwnerId_whenLargePortfolio_returnPageInIdOrderWithItsOwnBookings() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User booker = userRepository.save(generator.nextObject(User.class));
+        Map<Long, Long> lastByItem = new HashMap<>();
+        Map<Long, Long> nextByItem = new HashMap<>();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Item item = generator.nextObject(Item.class);
+            item.setOwner(owner);
+            item.setRequest(null);
+            item.setComments(null);
+            item = itemRepository.save(item);
+            itemIds.add(item.getId());
+            lastByItem.put(item.getId(), bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().minusDays(2).plusMinutes(i))
+                    .end(LocalDateTime.now().minusDays(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .build()).getId());
+            nextByItem.put(item.getId(), bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().plusDays(1).plusMinutes(i))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .build()).getId());
+        }
+        List<ItemDtoOut> page = itemService.findAllByOwnerId(20, 10, owner.getId());
+        assertThat(page).extracting(ItemDtoOut::getId).containsExactlyElementsOf(itemIds.subList(20, 30));
+        for (ItemDtoOut dtoOut : page) {
+            assertEquals(lastByItem.get(dtoOut.getId()), dtoOut.getLastBooking().getId());
+            assertEquals(nextByItem.get(dtoOut.getId()), dtoOut.getNextBooking().getId());
+        }
+    }
+
+    @Test
+    void findAllByOwnerIdAfter_whenWalkingCursor_returnEveryItemOnceInIdOrder() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Item item = generator.nextObject(Item.class);
+            item.setOwner(owner);
+            item.setRequest(null);
+            item.setComments(null);
+            expected.add(itemRepository.save(item).getId());
+        }
+        CursorPage<ItemDtoOut> first = itemService.findAllByOwnerIdAfter("", 2, owner.getId());
+        assertThat(first.getContent()).extracting(ItemDtoOut::getId).containsExactlyElementsOf(expected.subList(0, 2));
+        assertNotNull(first.getNextCursor());
+        CursorPage<ItemDtoOut> second = itemService.findAllByOwnerIdAfter(first.getNextCursor(), 2, owner.getId());
+        assertThat(second.getContent()).extracting(ItemDtoOut::getId).containsExactly(expected.get(2));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void searchByNameOrDescriptionAfter_whenNameAndDescriptionMatch_returnNameMatchesFirst() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        Item byDescription = itemRepository.save(Item.builder().name("drill").description("cursor-keyword")
+                .available(true).owner(owner).build());
+        Item byName = itemRepository.save(Item.builder().name("cursor-keyword").description("drill")
+                .available(true).owner(owner).build());
+        CursorPage<ItemDtoOut> first = itemService.searchByNameOrDescriptionAfter("", 1, "cursor-keyword");
+        assertThat(first.getContent()).extracting(ItemDtoOut::getId).containsExactly(byName.getId());
+        CursorPage<ItemDtoOut> second = itemService.searchByNameOrDescriptionAfter(first.getNextCursor(), 1,
+                "cursor-keyword");
+        assertThat(second.getContent()).extracting(ItemDtoOut::getId).containsExactly(byDescription.getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void searchByNameOrDescription_whenTextHasLikeWildcards_matchThemLiterally() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        Item literal = itemRepository.save(Item.builder().name("sale 50%_off").description("wildcard-keyword")
+                .available(true).owner(owner).build());
+        Item pattern = itemRepository.save(Item.builder().name("sale 50xxoff").description("wildcard-keyword")
+                .available(true).owner(owner).build());
+        Item backslash = itemRepository.save(Item.builder().name("path a\\b").description("wildcard-keyword")
+                .available(true).owner(owner).build());
+
+        assertThat(itemService.searchByNameOrDescription(0, 100, "50%_off"))
+                .extracting(ItemDtoOut::getId).containsExactly(literal.getId());
+        assertThat(itemService.searchByNameOrDescriptionAfter("", 100, "50%_OFF").getContent())
+                .extracting(ItemDtoOut::getId).containsExactly(literal.getId());
+        assertThat(itemService.searchByNameOrDescription(0, 100, "a\\b"))
+                .extracting(ItemDtoOut::getId).containsExactly(backslash.getId());
+        List<ItemDtoOut> percent = itemService.searchByNameOrDescription(0, 1000, "%");
+        assertThat(percent).extracting(ItemDtoOut::getId)
+                .contains(literal.getId())
+                .doesNotContain(pattern.getId(), backslash.getId());
+        assertThat(percent).allMatch(dtoOut -> dtoOut.getName().contains("%")
+                || dtoOut.getDescription().contains("%"));
+    }
+
     @Test
     void createComment() {
         User commentator = userRepository.save(generator.nextObject(User.class));
@@ -255,4 +488,82 @@ class ItemServiceIntegrationTest {
         assertNotNull(created.getText());
         assertNotNull(created.getCreated());
     }
+
+    @Test
+    void findAvailability_whenBookingsOverlapTouchOrAreRejected_returnMergedBusyAndFreeIntervals() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User booker = userRepository.save(generator.nextObject(User.class));
+        Item item = itemRepository.save(Item.builder().name("calendar").description("calendar")
+                .available(true).owner(owner).build());
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = from.plusDays(30);
+        saveBooking(item, booker, from.minusDays(5), from.plusDays(1), Status.APPROVED);
+        saveBooking(item, booker, from.plusDays(3), from.plusDays(5), Status.APPROVED);
+        saveBooking(item, booker, from.plusDays(5), from.plusDays(6), Status.WAITING);
+        saveBooking(item, booker, from.plusDays(4), from.plusDays(5), Status.APPROVED);
+        saveBooking(item, booker, from.plusDays(10), from.plusDays(12), Status.REJECTED);
+        saveBooking(item, booker, from.plusDays(20), to.plusDays(3), Status.APPROVED);
+        saveBooking(item, booker, to.plusDays(5), to.plusDays(6), Status.APPROVED);
+
+        ItemAvailabilityDto availability = itemService.findAvailability(item.getId(), booker.getId(), from, to);
+
+        assertThat(availability.getBusy()).containsExactly(
+                interval(from, from.plusDays(1)),
+                interval(from.plusDays(3), from.plusDays(6)),
+                interval(from.plusDays(20), to));
+        assertThat(availability.getFree()).containsExactly(
+                interval(from.plusDays(1), from.plusDays(3)),
+                interval(from.plusDays(6), from.plusDays(20)));
+    }
+
+    @Test
+    void findAvailability_whenYearWithDailyBookings_readBookingsInOneQuery() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        User booker = userRepository.save(generator.nextObject(User.class));
+        Item item = itemRepository.save(Item.builder().name("calendar").description("calendar")
+                .available(true).owner(owner).build());
+        LocalDateTime from = LocalDateTime.of(2031, 1, 1, 0, 0);
+        LocalDateTime to = from.plusYears(1);
+        for (int day = 0; day < 365; day++) {
+            saveBooking(item, booker, from.plusDays(day).plusHours(9), from.plusDays(day).plusHours(18),
+                    Status.APPROVED);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemAvailabilityDto availability = itemService.findAvailability(item.getId(), booker.getId(), from, to);
+
+        assertEquals(365, availability.getBusy().size());
+        assertEquals(366, availability.getFree().size());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void findAvailability_whenWindowEndsBeforeStart_throwAvailabilityWindowException() {
+        User owner = userRepository.save(generator.nextObject(User.class));
+        Item item = itemRepository.save(Item.builder().name("calendar").description("calendar")
+                .available(true).owner(owner).build());
+        LocalDateTime from = LocalDateTime.now();
+        assertThrows(AvailabilityWindowException.class,
+                () -> itemService.findAvailability(item.getId(), owner.getId(), from, from.minusDays(1)));
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+
+    private AvailabilityInterval interval(LocalDateTime start, LocalDateTime end) {
+        return AvailabilityInterval.builder()
+                .start(start)
+                .end(end)
+                .build();
+    }
 }
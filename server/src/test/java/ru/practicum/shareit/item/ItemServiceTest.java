@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,13 +13,15 @@ import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.item.UnregisteredBookingException;
 import ru.practicum.shareit.exceptions.user.ObjectOwnerException;
 import ru.practicum.shareit.exceptions.user.UserNotFoundException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemDetail;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -33,7 +36,9 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.config.ObjectMapperConfig;
 import ru.practicum.shareit.util.pager.PageRequester;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -60,6 +65,8 @@ class ItemServiceTest {
     @BeforeEach
     void setUp() {
         itemService = Mockito.mock(ItemServiceImpl.class, CALLS_REAL_METHODS);
+        ReflectionTestUtils.setField(itemService, "viewCache",
+                new ItemViewCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
     }
 
     @Test
@@ -269,97 +276,100 @@ class ItemServiceTest {
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
         ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
         ReflectionTestUtils.setField(itemService, "repository", itemRepository);
+        when(itemRepository.findDetailById(anyLong(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
         when(userRepository.existsById(anyLong()))
                 .thenReturn(false);
         assertThrows(UserNotFoundException.class,
                 () -> itemService.findById(generator.nextLong(), generator.nextLong()));
         verify(itemRepository, never())
-                .save(any(Item.class));
+                .findCommentDtosByItemId(anyLong());
     }
 
     @Test
-    void findById_whenUserItemOwner() {
-        ReflectionTestUtils.setField(itemService, "itemMapper", new ItemMapper());
-        ReflectionTestUtils.setField(itemService, "commentMapper", new CommentMapper());
-        ReflectionTestUtils.setField(itemService, "bookingMapper", new BookingMapper());
+    void findById_whenItemExistsButUserNotExist_assertThrowsUserNotFoundException() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        ReflectionTestUtils.setField(itemService, "repository", itemRepository);
+        when(itemRepository.findDetailById(anyLong(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetail(Map.of("id", 1L, "userExists", false, "isOwner", false))));
+        assertThrows(UserNotFoundException.class,
+                () -> itemService.findById(1L, generator.nextLong()));
+        verify(itemRepository, never())
+                .findCommentDtosByItemId(anyLong());
+    }
+
+    @Test
+    void findById_whenItemNotExist_assertThrowsEntityNotFoundException() {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
         ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
         ReflectionTestUtils.setField(itemService, "repository", itemRepository);
-        BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
-        ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
-        User owner = generator.nextObject(User.class);
-        Item item = generator.nextObject(Item.class);
-        item.setOwner(owner);
-        next.setId(generator.nextLong());
-        next.setItemId(item.getId());
-        next.setBookerId(generator.nextLong());
-        last.setId(generator.nextLong());
-        last.setItemId(item.getId());
-        last.setBookerId(generator.nextLong());
+        when(itemRepository.findDetailById(anyLong(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(itemRepository.findByIdWithOwnerAndComments(anyLong()))
-                .thenReturn(Optional.of(item));
-        when(bookingRepository.findTopByItemIdAndStatusAndStartBeforeOrderByStartDesc(
-                anyLong(), any(Status.class), any(LocalDateTime.class)))
-                .thenReturn(Optional.of(last));
-        when(bookingRepository.findTopByItemIdAndStatusAndStartAfterOrderByStart(
-                anyLong(), any(Status.class), any(LocalDateTime.class))).thenReturn(Optional.of(next));
-        ItemDtoOut found = itemService.findById(item.getId(), owner.getId());
-        assertEquals(item.getId(), found.getId());
-        assertEquals(item.getName(), found.getName());
-        assertEquals(item.getDescription(), found.getDescription());
-        assertEquals(item.getAvailable(), found.getAvailable());
-        assertEquals(item.getRequest().getId(), found.getRequestId());
-        assertEquals(last.getId(), found.getLastBooking().getId());
-        assertEquals(last.getBookerId(), found.getLastBooking().getBookerId());
-        assertEquals(next.getId(), found.getNextBooking().getId());
-        assertEquals(next.getBookerId(), found.getNextBooking().getBookerId());
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.findById(generator.nextLong(), generator.nextLong()));
+    }
+
+    @Test
+    void findById_whenUserItemOwner() {
+        ReflectionTestUtils.setField(itemService, "itemMapper", new ItemMapper());
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        ReflectionTestUtils.setField(itemService, "repository", itemRepository);
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", generator.nextLong());
+        row.put("name", generator.nextObject(String.class));
+        row.put("description", generator.nextObject(String.class));
+        row.put("available", true);
+        row.put("requestId", generator.nextLong());
+        row.put("userExists", true);
+        row.put("isOwner", true);
+        row.put("lastBookingId", generator.nextLong());
+        row.put("lastBookerId", generator.nextLong());
+        row.put("nextBookingId", generator.nextLong());
+        row.put("nextBookerId", generator.nextLong());
+        ItemDetail detail = itemDetail(row);
+        CommentDtoOut comment = generator.nextObject(CommentDtoOut.class);
+        when(itemRepository.findDetailById(anyLong(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(detail));
+        when(itemRepository.findCommentDtosByItemId(detail.getId()))
+                .thenReturn(List.of(comment));
+        ItemDtoOut found = itemService.findById(detail.getId(), generator.nextLong());
+        assertEquals(detail.getId(), found.getId());
+        assertEquals(detail.getName(), found.getName());
+        assertEquals(detail.getDescription(), found.getDescription());
+        assertEquals(detail.getAvailable(), found.getAvailable());
+        assertEquals(detail.getRequestId(), found.getRequestId());
+        assertEquals(detail.getLastBookingId(), found.getLastBooking().getId());
+        assertEquals(detail.getLastBookerId(), found.getLastBooking().getBookerId());
+        assertEquals(detail.getNextBookingId(), found.getNextBooking().getId());
+        assertEquals(detail.getNextBookerId(), found.getNextBooking().getBookerId());
+        assertThat(found.getComments()).containsExactly(comment);
+        verify(itemRepository, times(1))
+                .findDetailById(anyLong(), anyLong(), any(LocalDateTime.class));
         verify(itemRepository, times(1))
-                .findByIdWithOwnerAndComments(anyLong());
-        verify(bookingRepository, times(1))
-                .findTopByItemIdAndStatusAndStartBeforeOrderByStartDesc(
-                        anyLong(), any(Status.class), any(LocalDateTime.class));
-        verify(bookingRepository, times(1))
-                .findTopByItemIdAndStatusAndStartAfterOrderByStart(
-                        anyLong(), any(Status.class), any(LocalDateTime.class));
+                .findCommentDtosByItemId(anyLong());
     }
 
     @Test
     void findById_whenUserNotItemOwner() {
         ReflectionTestUtils.setField(itemService, "itemMapper", new ItemMapper());
-        ReflectionTestUtils.setField(itemService, "commentMapper", new CommentMapper());
-        ReflectionTestUtils.setField(itemService, "bookingMapper", new BookingMapper());
-        UserRepository userRepository = Mockito.mock(UserRepository.class);
-        ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
         ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
         ReflectionTestUtils.setField(itemService, "repository", itemRepository);
-        BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
-        ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
-        User owner = generator.nextObject(User.class);
-        Item item = generator.nextObject(Item.class);
-        item.setOwner(owner);
-        when(userRepository.existsById(anyLong()))
-                .thenReturn(true);
-        when(itemRepository.findByIdWithOwnerAndComments(anyLong()))
-                .thenReturn(Optional.of(item));
-        ItemDtoOut found = itemService.findById(item.getId(), generator.nextLong());
-        assertEquals(item.getId(), found.getId());
-        assertEquals(item.getName(), found.getName());
-        assertEquals(item.getDescription(), found.getDescription());
-        assertEquals(item.getAvailable(), found.getAvailable());
-        assertEquals(item.getRequest().getId(), found.getRequestId());
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", generator.nextLong());
+        row.put("name", generator.nextObject(String.class));
+        row.put("userExists", true);
+        row.put("isOwner", false);
+        ItemDetail detail = itemDetail(row);
+        when(itemRepository.findDetailById(anyLong(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(detail));
+        ItemDtoOut found = itemService.findById(detail.getId(), generator.nextLong());
+        assertEquals(detail.getId(), found.getId());
+        assertEquals(detail.getName(), found.getName());
         assertNull(found.getLastBooking());
         assertNull(found.getNextBooking());
-        verify(itemRepository, times(1))
-                .findByIdWithOwnerAndComments(anyLong());
-        verify(bookingRepository, never())
-                .findTopByItemIdAndStatusAndStartBeforeOrderByStartDesc(
-                        anyLong(), any(Status.class), any(LocalDateTime.class));
-        verify(bookingRepository, never())
-                .findTopByItemIdAndStatusAndStartAfterOrderByStart(
-                        anyLong(), any(Status.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -398,11 +408,13 @@ class ItemServiceTest {
         last.setBookerId(generator.nextLong());
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(itemRepository.findAllByOwnerIdWithComments(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(item)));
-        when(bookingRepository.findLastBookingsByItemOwnerId(anyLong()))
+        when(itemRepository.findIdsByOwnerId(anyLong(), any(PageRequester.class)))
+                .thenReturn(new PageImpl<>(List.of(item.getId())));
+        when(itemRepository.findAllByIdInWithComments(List.of(item.getId())))
+                .thenReturn(List.of(item));
+        when(bookingRepository.findLastBookingsByItemIdIn(List.of(item.getId())))
                 .thenReturn(List.of(last));
-        when(bookingRepository.findNextBookingsByItemOwnerId(anyLong()))
+        when(bookingRepository.findNextBookingsByItemIdIn(List.of(item.getId())))
                 .thenReturn(List.of(next));
         List<ItemDtoOut> foundList = itemService.findAllByOwnerId(from, limit, owner.getId());
         assertThat(foundList).hasSize(1);
@@ -426,8 +438,7 @@ class ItemServiceTest {
         ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
         ReflectionTestUtils.setField(itemService, "repository", itemRepository);
         Item item = generator.nextObject(Item.class);
-        when(itemRepository.findAllByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailableIsTrue(
-                anyString(), anyString(), any(PageRequester.class)))
+        when(itemRepository.searchAvailableByText(anyString(), any(PageRequester.class)))
                 .thenReturn(new PageImpl<>(List.of(item)));
         List<ItemDtoOut> foundList = itemService.searchByNameOrDescription(from, limit, item.getDescription());
         assertThat(foundList).hasSize(1);
@@ -506,4 +517,8 @@ class ItemServiceTest {
         verify(commentRepository, times(1))
                 .save(any(Comment.class));
     }
+
+    private ItemDetail itemDetail(Map<String, Object> row) {
+        return factory.createProjection(ItemDetail.class, new HashMap<>(row));
+    }
 }
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item;
+
+import lombok.SneakyThrows;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.UserDtoIn;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemViewCacheTest {
+
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final EasyRandom generator = new EasyRandom();
+    private Long ownerId;
+    private Long viewerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = saveUser();
+        viewerId = saveUser();
+        itemId = itemService.save(ItemDtoIn.builder()
+                .name("v0")
+                .description("cached item")
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.delete(ownerId);
+        userService.delete(viewerId);
+    }
+
+    @Test
+    void findById_whenNonOwnerReadsTwice_serveSecondReadFromCache() {
+        ItemDtoOut first = itemService.findById(itemId, viewerId);
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        item.setName("written behind cache");
+        itemRepository.save(item);
+        assertEquals("v0", itemService.findById(itemId, viewerId).getName());
+        assertEquals("written behind cache", itemService.findById(itemId, ownerId).getName());
+        assertNotSame(first, itemService.findById(itemId, viewerId));
+    }
+
+    @Test
+    void findById_whenCallerChangesReturnedView_keepCachedViewIntact() {
+        ItemDtoOut first = itemService.findById(itemId, viewerId);
+        first.setName("changed by caller");
+        first.getComments().add(CommentDtoOut.builder().text("injected").build());
+        ItemDtoOut second = itemService.findById(itemId, viewerId);
+        assertEquals("v0", second.getName());
+        assertTrue(second.getComments().isEmpty());
+    }
+
+    @Test
+    @SneakyThrows
+    void findById_whenPatchedWhileReadersRun_neverReturnStaleViewAfterCommit() {
+        int readers = 8;
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            futures.add(executor.submit(() -> {
+                while (running.get()) {
+                    itemService.findById(itemId, viewerId);
+                }
+            }));
+        }
+        try {
+            for (int version = 1; version <= 50; version++) {
+                itemService.patch(itemId, Map.of("name", "v" + version), ownerId);
+                assertEquals("v" + version, itemService.findById(itemId, viewerId).getName());
+            }
+        } finally {
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void findById_whenCommentAddedOrAuthorDeleted_returnFreshComments() {
+        Long commentatorId = saveUser();
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(commentatorId).orElseThrow())
+                .status(Status.APPROVED)
+                .build());
+        assertTrue(itemService.findById(itemId, viewerId).getComments().isEmpty());
+        itemService.createComment(itemId, commentatorId, CommentDtoIn.builder().text("nice").build());
+        assertEquals(1, itemService.findById(itemId, viewerId).getComments().size());
+        userService.delete(commentatorId);
+        assertTrue(itemService.findById(itemId, viewerId).getComments().isEmpty());
+    }
+
+    @Test
+    void findById_whenCommentAuthorRenamed_returnNewAuthorName() {
+        Long commentatorId = saveUser();
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(commentatorId).orElseThrow())
+                .status(Status.APPROVED)
+                .build());
+        itemService.createComment(itemId, commentatorId, CommentDtoIn.builder().text("nice").build());
+        assertNotEquals("newName", itemService.findById(itemId, viewerId).getComments().get(0).getAuthorName());
+        userService.patch(commentatorId, Map.of("name", "newName"));
+        assertEquals("newName", itemService.findById(itemId, viewerId).getComments().get(0).getAuthorName());
+        userService.delete(commentatorId);
+    }
+
+    private Long saveUser() {
+        UserDtoIn dtoIn = generator.nextObject(UserDtoIn.class);
+        dtoIn.setId(null);
+        return userService.save(dtoIn).getId();
+    }
+}
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class RequestRepositoryTest {
@@ -77,16 +78,36 @@ class RequestRepositoryTest {
     }
 
     @Test
-    void findAllOtherRequestsByUserId() {
+    void findOtherRequestIdsByUserId() {
         request.setAuthor(user);
         entityManager.persistAndFlush(request);
 
-        List<Request> foundRequests1 = requestRepository
-                .findAllOtherRequests(user.getId(), Pageable.ofSize(10)).toList();
+        List<Long> foundRequests1 = requestRepository
+                .findOtherRequestIds(user.getId(), Pageable.ofSize(10)).toList();
         assertThat(foundRequests1).isEmpty();
 
-        List<Request> foundRequests2 = requestRepository
-                .findAllOtherRequests(user2.getId(), Pageable.ofSize(10)).toList();
-        assertThat(foundRequests2).hasSize(1);
+        List<Long> foundRequests2 = requestRepository
+                .findOtherRequestIds(user2.getId(), Pageable.ofSize(10)).toList();
+        assertThat(foundRequests2).containsExactly(request.getId());
+    }
+
+    @Test
+    void findAllByIdInWithItems() {
+        request.setItems(List.of(item));
+        entityManager.persistAndFlush(request);
+        List<Request> foundRequests = requestRepository.findAllByIdInWithItems(List.of(request.getId()));
+        assertThat(foundRequests).containsExactly(request);
+        assertThat(foundRequests.get(0).getItems()).containsExactly(item);
+    }
+
+    @Test
+    void pagingOverCollectionFetch_whenAttempted_failInsteadOfPaginatingInMemory() {
+        request.setItems(List.of(item));
+        entityManager.persistAndFlush(request);
+        assertThatThrownBy(() -> entityManager.getEntityManager()
+                .createQuery("select r from Request r left join fetch r.items", Request.class)
+                .setMaxResults(1)
+                .getResultList())
+                .hasStackTraceContaining("In memory pagination");
     }
 }
@@ -9,7 +9,9 @@ import ru.practicum.shareit.request.dto.RequestDtoOut;
 import ru.practicum.shareit.request.service.RequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.pager.CursorPage;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -59,4 +61,21 @@ class RequestServiceIntegrationTest {
         assertThat(dtoOutList).hasSize(1);
         assertEquals(dtoOut, dtoOutList.get(0));
     }
+
+    @Test
+    void findAllAfter_whenWalkingCursor_returnOtherRequestsNewestFirst() {
+        User author = userRepository.save(generator.nextObject(User.class));
+        User anotherUser = userRepository.save(generator.nextObject(User.class));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            expected.add(0, requestService.save(generator.nextObject(RequestDtoIn.class), author.getId()).getId());
+        }
+        CursorPage<RequestDtoOut> first = requestService.findAllAfter("", 2, anotherUser.getId());
+        assertThat(first.getContent()).extracting(RequestDtoOut::getId).containsExactlyElementsOf(expected.subList(0, 2));
+        assertNotNull(first.getNextCursor());
+        CursorPage<RequestDtoOut> second = requestService.findAllAfter(first.getNextCursor(), 2, anotherUser.getId());
+        assertThat(second.getContent()).extracting(RequestDtoOut::getId).containsExactly(expected.get(2));
+        assertNull(second.getNextCursor());
+        assertThat(requestService.findAllAfter("", 2, author.getId()).getContent()).isEmpty();
+    }
 }
@@ -141,7 +141,7 @@ class RequestServiceTest {
                 .thenReturn(false);
         assertThrows(UserNotFoundException.class,
                 () -> requestService.findAll(from, limit, generator.nextLong()));
-        verify(requestRepository, never()).findAllOtherRequests(anyLong(), any(PageRequester.class));
+        verify(requestRepository, never()).findOtherRequestIds(anyLong(), any(PageRequester.class));
     }
 
     @Test
@@ -155,8 +155,10 @@ class RequestServiceTest {
         Request request = generator.nextObject(Request.class);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
-        when(requestRepository.findAllOtherRequests(anyLong(), any(PageRequester.class)))
-                .thenReturn(new PageImpl<>(List.of(request)));
+        when(requestRepository.findOtherRequestIds(anyLong(), any(PageRequester.class)))
+                .thenReturn(new PageImpl<>(List.of(request.getId())));
+        when(requestRepository.findAllByIdInWithItems(List.of(request.getId())))
+                .thenReturn(List.of(request));
         List<RequestDtoOut> foundList = requestService.findAll(from, limit, generator.nextLong());
         assertThat(foundList).hasSize(1);
         RequestDtoOut dtoOut = foundList.get(0);
@@ -165,7 +167,9 @@ class RequestServiceTest {
         assertEquals(request.getCreated(), dtoOut.getCreated());
         assertNotNull(dtoOut.getItems());
         verify(requestRepository, times(1))
-                .findAllOtherRequests(anyLong(), any(Pageable.class));
+                .findOtherRequestIds(anyLong(), any(Pageable.class));
+        verify(requestRepository, times(1))
+                .findAllByIdInWithItems(anyList());
     }
 
     @Test
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.exceptions.user.UserNotFoundException;
+import ru.practicum.shareit.request.service.RequestServiceImpl;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.util.config.CacheConfig.USER_EXISTS_CACHE;
+
+@SpringBootTest
+class UserExistenceCacheTest {
+
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RequestServiceImpl requestService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final EasyRandom generator = new EasyRandom();
+
+    @Test
+    void existsById_whenCalledRepeatedly_answerFromCacheUntilUserDeleted() {
+        UserDtoIn dtoIn = generator.nextObject(UserDtoIn.class);
+        dtoIn.setId(null);
+        Long id = userService.save(dtoIn).getId();
+        double hits = cacheGets("hit");
+        assertTrue(userRepository.existsById(id));
+        assertTrue(userRepository.existsById(id));
+        requestService.findAllByAuthorId(id);
+        assertEquals(hits + 2, cacheGets("hit"));
+
+        userService.delete(id);
+        assertFalse(userRepository.existsById(id));
+    }
+
+    @Test
+    void existsById_whenUserUnknown_cacheNegativeAnswer() {
+        Long unknownId = Long.MAX_VALUE - generator.nextInt(1000);
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+        assertThrows(UserNotFoundException.class, () -> requestService.findAllByAuthorId(unknownId));
+        assertThrows(UserNotFoundException.class, () -> requestService.findAllByAuthorId(unknownId));
+        assertEquals(misses + 1, cacheGets("miss"));
+        assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    void save_whenIdWasCachedAsUnknown_evictNegativeAnswer() {
+        UserDtoIn dtoIn = generator.nextObject(UserDtoIn.class);
+        dtoIn.setId(null);
+        Long probeId = userService.save(dtoIn).getId() + 1;
+        assertFalse(userRepository.existsById(probeId));
+        UserDtoIn next = generator.nextObject(UserDtoIn.class);
+        next.setId(null);
+        Long id = userService.save(next).getId();
+        assertEquals(probeId, id);
+        assertTrue(userRepository.existsById(id));
+        userService.delete(id);
+        userService.delete(probeId - 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void existsById_whenUserDeletedWhileAnswerLoads_doNotKeepLoadedAnswer() {
+        Long id = saveUser();
+        Long deletedId = saveUser();
+        Cache cache = cacheManager.getCache(USER_EXISTS_CACHE);
+        assertNotNull(cache);
+        cache.evict(id);
+
+        boolean loaded = cache.get(id, () -> {
+            CompletableFuture.runAsync(() -> userService.delete(deletedId)).get(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        assertTrue(loaded);
+        assertNull(cache.get(id));
+        assertTrue(userRepository.existsById(id));
+        assertFalse(userRepository.existsById(deletedId));
+        userService.delete(id);
+    }
+
+    private Long saveUser() {
+        UserDtoIn dtoIn = generator.nextObject(UserDtoIn.class);
+        dtoIn.setId(null);
+        return userService.save(dtoIn).getId();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", USER_EXISTS_CACHE)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
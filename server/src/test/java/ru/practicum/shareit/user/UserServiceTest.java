@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.exceptions.user.EmailAlreadyRegisteredException;
 import ru.practicum.shareit.exceptions.user.UserNotFoundException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.user.dto.UserDtoOut;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 import ru.practicum.shareit.util.config.ObjectMapperConfig;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -36,6 +40,10 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         userService = Mockito.mock(UserServiceImpl.class, CALLS_REAL_METHODS);
+        ReflectionTestUtils.setField(userService, "itemViewCache",
+                new ItemViewCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(userService, "sessionFactory",
+                Mockito.mock(SessionFactory.class, RETURNS_DEEP_STUBS));
     }
 
     @Test